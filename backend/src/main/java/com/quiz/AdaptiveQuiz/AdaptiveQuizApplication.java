@@ -1,11 +1,21 @@
 package com.quiz.AdaptiveQuiz;
 
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+import com.quiz.AdaptiveQuiz.config.QuestionBankCli;
+
 @SpringBootApplication
 public class AdaptiveQuizApplication {
     public static void main(String[] args) {
-        SpringApplication.run(AdaptiveQuizApplication.class, args);
+        SpringApplication app = new SpringApplication(AdaptiveQuizApplication.class);
+        if (QuestionBankCli.requested(args)) {
+            // Import/export next to a live server: only what the CLI needs (see QuestionBankCli)
+            app.setAdditionalProfiles(QuestionBankCli.PROFILE);
+            app.setWebApplicationType(WebApplicationType.NONE);
+            app.setLazyInitialization(true);
+        }
+        app.run(args);
     }
 }
@@ -0,0 +1,31 @@
+package com.quiz.AdaptiveQuiz.config;
+
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.unit.DataSize;
+
+// gzip for JSON / CSV responses above 1 KB (leaderboards, reviews, exports);
+// small bodies aren't worth the CPU. Defaults only: any server.compression.*
+// in application.properties wins. Brotli is left to the reverse proxy, the
+// embedded Tomcat only does gzip.
+@Configuration
+public class CompressionConfig {
+
+    @Bean
+    public WebServerFactoryCustomizer<ConfigurableServletWebServerFactory> compressionDefaults(Environment env) {
+        return factory -> {
+            if (env.containsProperty("server.compression.enabled")) {
+                return;
+            }
+            Compression compression = new Compression();
+            compression.setEnabled(true);
+            compression.setMimeTypes(new String[] { "application/json", "text/plain", "text/csv" });
+            compression.setMinResponseSize(DataSize.ofKilobytes(1));
+            factory.setCompression(compression);
+        };
+    }
+}
@@ -1,11 +1,24 @@
 package com.quiz.AdaptiveQuiz.config;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import org.springframework.boot.CommandLineRunner;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.quiz.AdaptiveQuiz.dto.StartupStatsDTO;
 import com.quiz.AdaptiveQuiz.entity.User;
 import com.quiz.AdaptiveQuiz.entity.Subject;
 import com.quiz.AdaptiveQuiz.entity.Question;
@@ -13,86 +26,216 @@ import com.quiz.AdaptiveQuiz.entity.Difficulty;
 import com.quiz.AdaptiveQuiz.repository.UserRepository;
 import com.quiz.AdaptiveQuiz.repository.SubjectRepository;
 import com.quiz.AdaptiveQuiz.repository.QuestionRepository;
+import com.quiz.AdaptiveQuiz.service.QuestionBankService;
+import com.quiz.AdaptiveQuiz.service.UserStatsService;
+import com.quiz.AdaptiveQuiz.util.ContentHash;
 
-@Configuration
+// Seeds the admin account, default subjects and placeholder questions once the
+// app is ready, on a background thread, so it never delays serving traffic.
+// Each kind of row is one read of what exists plus one batched insert of what
+// is missing (questions are matched by content hash), which makes re-runs no-ops.
+// A MySQL named lock keeps nodes of a rolling deploy from seeding twice.
+@Component
 public class DataInitializer {
 
-    @Bean
-    CommandLineRunner initData(UserRepository userRepo,
+    private static final String[] DEFAULT_SUBJECTS = {
+            "JAVA", "CPP", "DATABASE_TECHNOLOGIES", "WEB_PROGRAMMING",
+            "CSHARP_ASPNET", "ADVANCED_JAVA", "DSA", "OPERATING_SYSTEM"
+    };
+
+    private final UserRepository userRepo;
+    private final PasswordEncoder encoder;
+    private final SubjectRepository subjectRepo;
+    private final QuestionRepository questionRepo;
+    private final UserStatsService userStatsService;
+    private final QuestionBankService questionBank;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final com.quiz.AdaptiveQuiz.service.ResourceVersionService resourceVersions;
+
+    @Value("${app.seed.enabled:true}")
+    private boolean enabled;
+
+    private volatile long startupMs = -1;
+    private volatile long seedMs = -1;
+    private volatile int subjectsSeeded;
+    private volatile int questionsSeeded;
+
+    public DataInitializer(UserRepository userRepo,
             PasswordEncoder encoder,
             SubjectRepository subjectRepo,
-            QuestionRepository questionRepo) { // Injected QuestionRepository
-
-        return args -> {
-
-            // 1. Initialize Admin
-            if (!userRepo.existsByEmail("admin@quiz.com")) {
-                User admin = new User();
-                admin.setName("MASTER ADMIN");
-                admin.setEmail("admin@quiz.com");
-                admin.setPassword(encoder.encode("admin123"));
-                admin.setRole("ADMIN");
-                admin.setVerified(true);
-                userRepo.save(admin);
-                System.out.println("✅ ADMIN CREATED");
-            }
+            QuestionRepository questionRepo,
+            UserStatsService userStatsService,
+            QuestionBankService questionBank,
+            JdbcTemplate jdbc,
+            PlatformTransactionManager transactionManager,
+            com.quiz.AdaptiveQuiz.service.ResourceVersionService resourceVersions) {
+        this.userRepo = userRepo;
+        this.encoder = encoder;
+        this.subjectRepo = subjectRepo;
+        this.questionRepo = questionRepo;
+        this.userStatsService = userStatsService;
+        this.questionBank = questionBank;
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.resourceVersions = resourceVersions;
+    }
 
-            // 2. Initialize Subjects
-            String[] defaultSubjects = {
-                    "JAVA", "CPP", "DATABASE_TECHNOLOGIES", "WEB_PROGRAMMING",
-                    "CSHARP_ASPNET", "ADVANCED_JAVA", "DSA", "OPERATING_SYSTEM"
-            };
-
-            for (String subName : defaultSubjects) {
-                Subject s;
-                if (!subjectRepo.existsByName(subName)) {
-                    s = new Subject(subName);
-                    s = subjectRepo.save(s);
-                    System.out.println("✅ Subject seeded: " + subName);
-                } else {
-                    s = subjectRepo.findByName(subName).orElseThrow();
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady(ApplicationReadyEvent event) {
+        startupMs = event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1;
+        System.out.println("✅ Ready to serve in " + startupMs + " ms");
+        if (!enabled) {
+            return;
+        }
+        Thread seeder = new Thread(this::seed, "data-seeder");
+        seeder.setDaemon(true);
+        seeder.start();
+    }
+
+    public StartupStatsDTO getStartupStats() {
+        return new StartupStatsDTO(startupMs, seedMs, subjectsSeeded, questionsSeeded);
+    }
+
+    private void seed() {
+        long start = System.currentTimeMillis();
+        try {
+            Boolean seeded = tx.execute(status -> {
+                // Session-level lock; the transaction pins the connection until RELEASE_LOCK
+                Integer locked = jdbc.queryForObject("SELECT GET_LOCK('adaptive_quiz_seed', 30)", Integer.class);
+                if (locked == null || locked != 1) {
+                    return false;
+                }
+                try {
+                    seedAdmin();
+                    List<Subject> subjects = seedSubjects();
+                    seedQuestions(subjects);
+                    return true;
+                } finally {
+                    jdbc.queryForObject("SELECT RELEASE_LOCK('adaptive_quiz_seed')", Integer.class);
                 }
+            });
+            seedMs = System.currentTimeMillis() - start;
+            if (subjectsSeeded > 0) {
+                resourceVersions.bump(com.quiz.AdaptiveQuiz.service.ResourceVersionService.SUBJECTS);
+            }
+            if (Boolean.TRUE.equals(seeded)) {
+                System.out.println("✅ Seeding done in " + seedMs + " ms (" + subjectsSeeded + " subjects, "
+                        + questionsSeeded + " questions added)");
+            } else {
+                System.out.println("Seeding skipped: another node holds the seed lock");
+            }
+        } catch (Exception e) {
+            System.err.println("Seeding failed: " + e.getMessage());
+        }
+    }
 
-                // Seed dummy questions (Check is inside the method)
-                seedQuestions(s, questionRepo);
+    // 1. Admin
+    private void seedAdmin() {
+        if (!userRepo.existsByEmail("admin@quiz.com")) {
+            User admin = new User();
+            admin.setName("MASTER ADMIN");
+            admin.setEmail("admin@quiz.com");
+            admin.setPassword(encoder.encode("admin123"));
+            admin.setRole("ADMIN");
+            admin.setVerified(true);
+            userRepo.save(admin);
+            userStatsService.initialize(admin.getId());
+            System.out.println("✅ ADMIN CREATED");
+        }
+    }
+
+    // 2. Subjects: one read, one batched insert of the missing names
+    private List<Subject> seedSubjects() {
+        Map<String, Subject> byName = subjectRepo.findAll().stream()
+                .collect(Collectors.toMap(Subject::getName, Function.identity()));
+
+        List<Subject> missing = new ArrayList<>();
+        for (String subName : DEFAULT_SUBJECTS) {
+            if (!byName.containsKey(subName)) {
+                missing.add(new Subject(subName));
             }
-        };
+        }
+        for (Subject s : subjectRepo.saveAll(missing)) {
+            byName.put(s.getName(), s);
+            System.out.println("✅ Subject seeded: " + s.getName());
+        }
+        subjectsSeeded = missing.size();
+
+        List<Subject> defaults = new ArrayList<>();
+        for (String subName : DEFAULT_SUBJECTS) {
+            defaults.add(byName.get(subName));
+        }
+        return defaults;
     }
 
-    private void seedQuestions(Subject subject, QuestionRepository questionRepo) {
-        // EASY - Seed 3 Questions
-        if (questionRepo.countBySubjectAndDifficulty(subject, Difficulty.EASY) < 3) {
-            createQuestion(questionRepo, subject, Difficulty.EASY,
-                    "Basic " + subject.getName() + " concept? ", "A", List.of("A", "B", "C", "D"));
-            createQuestion(questionRepo, subject, Difficulty.EASY,
-                    "Intro to " + subject.getName() + " syntax? ", "B", List.of("A", "B", "C", "D"));
-            createQuestion(questionRepo, subject, Difficulty.EASY,
-                    "Simple " + subject.getName() + " definition? ", "C", List.of("A", "B", "C", "D"));
+    // 3. Placeholder questions, only where a subject/difficulty has fewer than 3,
+    //    skipping seed questions that are already in the bank
+    private void seedQuestions(List<Subject> subjects) {
+        // Seed rows from before content_hash existed must have one to be matched
+        questionBank.backfillContentHashes();
+
+        Set<String> stocked = new HashSet<>(jdbc.queryForList(
+                "SELECT CONCAT(subject_id, ':', difficulty) FROM questions GROUP BY subject_id, difficulty HAVING COUNT(*) >= 3",
+                String.class));
+
+        List<Question> seeds = new ArrayList<>();
+        for (Subject subject : subjects) {
+            addSeedQuestions(seeds, subject);
+        }
+        seeds.removeIf(q -> stocked.contains(q.getSubject().getId() + ":" + q.getDifficulty().name()));
+        if (seeds.isEmpty()) {
+            return;
         }
 
-        // MEDIUM - Seed 3 Questions
-        if (questionRepo.countBySubjectAndDifficulty(subject, Difficulty.MEDIUM) < 3) {
-            createQuestion(questionRepo, subject, Difficulty.MEDIUM,
-                    "Intermediate " + subject.getName() + " logic? ", "B", List.of("X", "Y", "Z", "W"));
-            createQuestion(questionRepo, subject, Difficulty.MEDIUM,
-                    "Common " + subject.getName() + " pattern? ", "C", List.of("P", "Q", "R", "S"));
-            createQuestion(questionRepo, subject, Difficulty.MEDIUM,
-                    "Explain " + subject.getName() + " lifecycle? ", "A", List.of("1", "2", "3", "4"));
+        List<String> hashes = new ArrayList<>();
+        for (Question q : seeds) {
+            hashes.add(ContentHash.of(q.getSubject().getId(), q.getContent()));
         }
+        Set<String> existing = new HashSet<>(jdbc.queryForList(
+                "SELECT content_hash FROM questions WHERE content_hash IN ("
+                        + String.join(",", Collections.nCopies(hashes.size(), "?")) + ")",
+                String.class, hashes.toArray()));
 
-        // HARD - Seed 3 Questions
-        if (questionRepo.countBySubjectAndDifficulty(subject, Difficulty.HARD) < 3) {
-            createQuestion(questionRepo, subject, Difficulty.HARD,
-                    "Advanced " + subject.getName() + " optimization? ", "D", List.of("Ops1", "Ops2", "Ops3", "Ops4"));
-            createQuestion(questionRepo, subject, Difficulty.HARD,
-                    "Deep dive " + subject.getName() + " internals? ", "A", List.of("Core", "Shell", "Kernel", "None"));
-            createQuestion(questionRepo, subject, Difficulty.HARD,
-                    "Complex " + subject.getName() + " architecture? ", "B",
-                    List.of("Mono", "Micro", "Serverless", "Hybrid"));
+        List<Question> missing = new ArrayList<>();
+        for (int i = 0; i < seeds.size(); i++) {
+            if (!existing.contains(hashes.get(i))) {
+                missing.add(seeds.get(i));
+            }
         }
+        // Inserted as JDBC batches
+        questionRepo.saveAll(missing);
+        questionsSeeded = missing.size();
+    }
+
+    private void addSeedQuestions(List<Question> batch, Subject subject) {
+        // EASY - 3 Questions
+        createQuestion(batch, subject, Difficulty.EASY,
+                "Basic " + subject.getName() + " concept? ", "A", List.of("A", "B", "C", "D"));
+        createQuestion(batch, subject, Difficulty.EASY,
+                "Intro to " + subject.getName() + " syntax? ", "B", List.of("A", "B", "C", "D"));
+        createQuestion(batch, subject, Difficulty.EASY,
+                "Simple " + subject.getName() + " definition? ", "C", List.of("A", "B", "C", "D"));
+
+        // MEDIUM - 3 Questions
+        createQuestion(batch, subject, Difficulty.MEDIUM,
+                "Intermediate " + subject.getName() + " logic? ", "B", List.of("X", "Y", "Z", "W"));
+        createQuestion(batch, subject, Difficulty.MEDIUM,
+                "Common " + subject.getName() + " pattern? ", "C", List.of("P", "Q", "R", "S"));
+        createQuestion(batch, subject, Difficulty.MEDIUM,
+                "Explain " + subject.getName() + " lifecycle? ", "A", List.of("1", "2", "3", "4"));
+
+        // HARD - 3 Questions
+        createQuestion(batch, subject, Difficulty.HARD,
+                "Advanced " + subject.getName() + " optimization? ", "D", List.of("Ops1", "Ops2", "Ops3", "Ops4"));
+        createQuestion(batch, subject, Difficulty.HARD,
+                "Deep dive " + subject.getName() + " internals? ", "A", List.of("Core", "Shell", "Kernel", "None"));
+        createQuestion(batch, subject, Difficulty.HARD,
+                "Complex " + subject.getName() + " architecture? ", "B",
+                List.of("Mono", "Micro", "Serverless", "Hybrid"));
     }
 
-    private void createQuestion(QuestionRepository repo, Subject sub, Difficulty diff, String content, String ans,
+    private void createQuestion(List<Question> batch, Subject sub, Difficulty diff, String content, String ans,
             List<String> opts) {
         Question q = new Question();
         q.setSubject(sub);
@@ -100,6 +243,6 @@ public class DataInitializer {
         q.setContent(content);
         q.setCorrectAnswer(ans);
         q.setOptions(opts);
-        repo.save(q);
+        batch.add(q);
     }
 }
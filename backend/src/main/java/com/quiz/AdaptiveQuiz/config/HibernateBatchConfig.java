@@ -0,0 +1,20 @@
+package com.quiz.AdaptiveQuiz.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// JDBC batching defaults; application.properties can still override any of them
+@Configuration
+public class HibernateBatchConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateBatchDefaults() {
+        return props -> {
+            props.putIfAbsent("hibernate.jdbc.batch_size", "50");
+            props.putIfAbsent("hibernate.order_inserts", "true");
+            props.putIfAbsent("hibernate.order_updates", "true");
+            props.putIfAbsent("hibernate.jdbc.batch_versioned_data", "true");
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.quiz.AdaptiveQuiz.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+// Entities used to be IDENTITY. On MySQL their pooled generators are backed by
+// one-row "<name>_seq" tables that start at 1, so on a database that already has
+// rows the sequences are moved past MAX(id) before anything is inserted.
+// Only ever moves a sequence forward, so it is safe on every start and on every node.
+@Configuration
+public class IdSequenceAligner {
+
+    // Must match allocationSize on the entities' @SequenceGenerator
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final String[][] SEQUENCES = {
+            { "user_seq", "users", "id" },
+            { "quiz_attempt_seq", "quiz_attempt", "attempt_id" },
+            { "skill_snapshot_seq", "skill_snapshots", "id" },
+            { "question_seq", "questions", "id" },
+            { "subject_seq", "subjects", "id" },
+    };
+
+    private final JdbcTemplate jdbc;
+
+    // Depending on the EntityManagerFactory makes this run after schema update
+    public IdSequenceAligner(JdbcTemplate jdbc, EntityManagerFactory entityManagerFactory) {
+        this.jdbc = jdbc;
+    }
+
+    @PostConstruct
+    public void align() {
+        for (String[] s : SEQUENCES) {
+            // The pooled optimizer hands out (next_val - allocationSize, next_val]
+            String floor = "(SELECT COALESCE(MAX(" + s[2] + "), 0) + " + (ALLOCATION_SIZE + 1) + " FROM " + s[1] + ")";
+            try {
+                int moved = jdbc.update("UPDATE " + s[0] + " SET next_val = " + floor + " WHERE next_val < " + floor);
+                if (moved > 0) {
+                    System.out.println("✅ Moved id sequence " + s[0] + " past existing " + s[1] + " rows");
+                }
+            } catch (Exception e) {
+                // Databases with native sequences (e.g. an embedded test DB) have no table to align
+                System.out.println("Id sequence " + s[0] + " not aligned: " + e.getMessage());
+            }
+        }
+    }
+}
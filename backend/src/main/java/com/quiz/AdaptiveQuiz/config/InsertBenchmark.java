@@ -0,0 +1,96 @@
+package com.quiz.AdaptiveQuiz.config;
+
+import java.util.List;
+
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.quiz.AdaptiveQuiz.entity.Difficulty;
+import com.quiz.AdaptiveQuiz.entity.Question;
+import com.quiz.AdaptiveQuiz.entity.Subject;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// Question insert throughput, row-at-a-time vs JDBC-batched. Only active with the
+// "benchmark" profile and cleans up after itself:
+//
+//   mvn spring-boot:run -Dspring-boot.run.profiles=benchmark -Dspring-boot.run.arguments=--benchmark.questions=100000
+//
+// The row-at-a-time run forces a JDBC batch size of 1 for its session, which is
+// what IDENTITY ids used to force on every insert (minus the generated-key fetch).
+@Component
+@Profile("benchmark")
+public class InsertBenchmark implements CommandLineRunner {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final TransactionTemplate tx;
+    private final JdbcTemplate jdbc;
+
+    @Value("${benchmark.questions:100000}")
+    private int questions;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    public InsertBenchmark(PlatformTransactionManager transactionManager, JdbcTemplate jdbc) {
+        this.tx = new TransactionTemplate(transactionManager);
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void run(String... args) {
+        Subject subject = tx.execute(s -> {
+            Subject bench = new Subject("BENCHMARK_" + System.currentTimeMillis());
+            em.persist(bench);
+            return bench;
+        });
+
+        try {
+            double before = insert(subject, 1);
+            cleanup(subject);
+            double after = insert(subject, batchSize);
+
+            System.out.printf("✅ Inserted %d questions (+4 options each)%n", questions);
+            System.out.printf("   row-at-a-time : %,.0f questions/s%n", before);
+            System.out.printf("   batched (%d)  : %,.0f questions/s (%.1fx)%n", batchSize, after, after / before);
+        } finally {
+            cleanup(subject);
+            tx.executeWithoutResult(s -> em.remove(em.find(Subject.class, subject.getId())));
+        }
+    }
+
+    private double insert(Subject subject, int jdbcBatchSize) {
+        long start = System.nanoTime();
+        tx.executeWithoutResult(s -> {
+            em.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+            Subject ref = em.getReference(Subject.class, subject.getId());
+            for (int i = 0; i < questions; i++) {
+                Difficulty d = Difficulty.values()[i % Difficulty.values().length];
+                em.persist(new Question("Benchmark question " + i + "?", List.of("A", "B", "C", "D"), "A", ref, d));
+                // Keep the persistence context small
+                if ((i + 1) % 1000 == 0) {
+                    em.flush();
+                    em.clear();
+                    ref = em.getReference(Subject.class, subject.getId());
+                }
+            }
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return questions / seconds;
+    }
+
+    private void cleanup(Subject subject) {
+        jdbc.update("DELETE o FROM question_options o JOIN questions q ON q.id = o.question_id WHERE q.subject_id = ?",
+                subject.getId());
+        jdbc.update("DELETE FROM questions WHERE subject_id = ?", subject.getId());
+    }
+}
@@ -0,0 +1,112 @@
+package com.quiz.AdaptiveQuiz.config;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.quiz.AdaptiveQuiz.dto.ImportReportDTO;
+import com.quiz.AdaptiveQuiz.service.QuestionBankService;
+import com.quiz.AdaptiveQuiz.service.QuestionBankService.Format;
+
+// Command-line import/export for banks too big to upload; exits when done:
+//
+//   java -jar app.jar --questions.import=bank.jsonl
+//   java -jar app.jar --questions.export=bank.csv [--questions.subject-id=3]
+//
+// Every rejected line of an import is written to <file>.errors.csv.
+//
+// It may run on an app host, so it starts under the "cli" profile (see
+// AdaptiveQuizApplication): no web server, no scheduled jobs, no answer log,
+// email outbox or in-memory question indexes, and only the beans the import /
+// export needs are created. It exits before ApplicationReadyEvent, so none of
+// the startup loaders run either.
+@Component
+@Profile(QuestionBankCli.PROFILE)
+public class QuestionBankCli implements ApplicationRunner {
+
+    public static final String PROFILE = "cli";
+
+    private final QuestionBankService questionBank;
+    private final ConfigurableApplicationContext context;
+
+    public QuestionBankCli(QuestionBankService questionBank, ConfigurableApplicationContext context) {
+        this.questionBank = questionBank;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        String importPath = option(args, "questions.import");
+        String exportPath = option(args, "questions.export");
+        if (importPath == null && exportPath == null) {
+            return;
+        }
+
+        if (importPath != null) {
+            importFile(Path.of(importPath), option(args, "questions.format"));
+        } else {
+            String subjectId = option(args, "questions.subject-id");
+            exportFile(Path.of(exportPath), option(args, "questions.format"),
+                    subjectId == null ? null : Long.valueOf(subjectId));
+        }
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+
+    private void importFile(Path file, String format) throws IOException {
+        Path errorFile = Path.of(file + ".errors.csv");
+        ImportReportDTO report;
+        try (InputStream in = Files.newInputStream(file);
+                BufferedWriter errors = Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8)) {
+            errors.write("line,message\n");
+            report = questionBank.importQuestions(in, Format.of(format, file.toString()), e -> {
+                try {
+                    errors.write(e.getLine() + ",\"" + e.getMessage().replace("\"", "\"\"") + "\"\n");
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
+        System.out.printf("✅ Imported %s: %,d records, %,d inserted, %,d duplicates, %,d invalid in %,d ms%n",
+                file, report.getRecords(), report.getInserted(), report.getDuplicates(), report.getInvalid(),
+                report.getElapsedMs());
+        if (report.getInvalid() > 0) {
+            System.out.println("   Rejected lines: " + errorFile);
+        }
+    }
+
+    private void exportFile(Path file, String format, Long subjectId) throws IOException {
+        long start = System.currentTimeMillis();
+        try (OutputStream out = Files.newOutputStream(file)) {
+            questionBank.exportQuestions(out, Format.of(format, file.toString()), subjectId);
+        }
+        System.out.printf("✅ Exported questions to %s in %,d ms%n", file, System.currentTimeMillis() - start);
+    }
+
+    // Whether the command line asks for an import or export
+    public static boolean requested(String[] args) {
+        for (String arg : args) {
+            if (arg.startsWith("--questions.import=") || arg.startsWith("--questions.export=")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String option(ApplicationArguments args, String name) {
+        return args.containsOption(name) && !args.getOptionValues(name).isEmpty()
+                ? args.getOptionValues(name).get(0)
+                : null;
+    }
+}
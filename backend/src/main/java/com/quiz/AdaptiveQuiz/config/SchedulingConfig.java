@@ -0,0 +1,40 @@
+package com.quiz.AdaptiveQuiz.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import com.quiz.AdaptiveQuiz.util.HashedWheelTimer;
+
+@Configuration
+public class SchedulingConfig {
+
+    // No @Scheduled job runs in a question-bank CLI process next to a live server
+    @Configuration
+    @EnableScheduling
+    @Profile("!" + QuestionBankCli.PROFILE)
+    static class Enabled {
+    }
+
+    // Runs every @Scheduled job. Spring's default is a single thread, where one slow
+    // job (SMTP sends, calibration chunks, rebuilds) holds up all the others.
+    // The answer-log flusher has its own thread (AnswerLogService).
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${scheduling.pool-size:8}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduled-");
+        return scheduler;
+    }
+
+    // Shared by every per-attempt timeout (countdown pushes, expiry): one thread in total
+    @Bean(destroyMethod = "stop")
+    public HashedWheelTimer quizWheel() {
+        return new HashedWheelTimer("quiz-timer", 100, TimeUnit.MILLISECONDS, 512);
+    }
+}
@@ -0,0 +1,175 @@
+package com.quiz.AdaptiveQuiz.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+// Flyway-style versioned migrations: classpath:db/migration/V<version>__<description>.sql
+// run once each, in version order, and are recorded in schema_migrations with a checksum.
+// A MySQL named lock serializes nodes starting together. MySQL DDL is not
+// transactional, so a half-applied migration is re-run from the top; "already
+// exists" (and "already dropped") errors on re-run are skipped.
+@Configuration
+public class SchemaMigrator {
+
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
+    // Duplicate key name / duplicate column name / no such key or column to drop
+    private static final int ER_DUP_KEYNAME = 1061;
+    private static final int ER_DUP_FIELDNAME = 1060;
+    private static final int ER_CANT_DROP_FIELD_OR_KEY = 1091;
+
+    private record Migration(int version, String description, String sql, String checksum) {
+    }
+
+    private final JdbcTemplate jdbc;
+
+    // Depending on the EntityManagerFactory makes this run after Hibernate created the tables
+    public SchemaMigrator(JdbcTemplate jdbc, EntityManagerFactory entityManagerFactory) {
+        this.jdbc = jdbc;
+    }
+
+    @PostConstruct
+    public void migrate() throws IOException {
+        List<Migration> migrations = load();
+        // One connection throughout: GET_LOCK belongs to the session
+        jdbc.execute((ConnectionCallback<Void>) con -> {
+            try (Statement st = con.createStatement()) {
+                st.execute("""
+                        CREATE TABLE IF NOT EXISTS schema_migrations (
+                            version INT PRIMARY KEY,
+                            description VARCHAR(200) NOT NULL,
+                            checksum CHAR(64) NOT NULL,
+                            installed_at DATETIME NOT NULL,
+                            execution_ms BIGINT NOT NULL)
+                        """);
+                try (ResultSet rs = st.executeQuery("SELECT GET_LOCK('adaptive_quiz_migrations', 60)")) {
+                    if (!rs.next() || rs.getInt(1) != 1) {
+                        throw new IllegalStateException("Timed out waiting for the schema migration lock");
+                    }
+                }
+                try {
+                    apply(con, migrations);
+                } finally {
+                    st.executeQuery("SELECT RELEASE_LOCK('adaptive_quiz_migrations')").close();
+                }
+            }
+            return null;
+        });
+    }
+
+    private void apply(Connection con, List<Migration> migrations) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement st = con.createStatement();
+                ResultSet rs = st.executeQuery("SELECT version, checksum FROM schema_migrations")) {
+            while (rs.next()) {
+                applied.put(rs.getInt(1), rs.getString(2));
+            }
+        }
+
+        for (Migration m : migrations) {
+            String checksum = applied.get(m.version());
+            if (checksum != null) {
+                if (!checksum.equals(m.checksum())) {
+                    System.err.println("Migration V" + m.version() + " was edited after it was applied");
+                }
+                continue;
+            }
+
+            long start = System.currentTimeMillis();
+            try (Statement st = con.createStatement()) {
+                for (String statement : statements(m.sql())) {
+                    try {
+                        st.execute(statement);
+                    } catch (SQLException e) {
+                        if (e.getErrorCode() != ER_DUP_KEYNAME && e.getErrorCode() != ER_DUP_FIELDNAME
+                                && e.getErrorCode() != ER_CANT_DROP_FIELD_OR_KEY) {
+                            throw new SQLException("Migration V" + m.version() + " failed: " + e.getMessage(), e);
+                        }
+                    }
+                }
+            }
+            long elapsed = System.currentTimeMillis() - start;
+
+            try (PreparedStatement ps = con.prepareStatement(
+                    "INSERT INTO schema_migrations (version, description, checksum, installed_at, execution_ms) VALUES (?, ?, ?, NOW(), ?)")) {
+                ps.setInt(1, m.version());
+                ps.setString(2, m.description());
+                ps.setString(3, m.checksum());
+                ps.setLong(4, elapsed);
+                ps.executeUpdate();
+            }
+            System.out.println("✅ Applied migration V" + m.version() + " " + m.description() + " in " + elapsed + " ms");
+        }
+    }
+
+    private List<Migration> load() throws IOException {
+        List<Migration> migrations = new ArrayList<>();
+        Resource[] resources = new PathMatchingResourcePatternResolver()
+                .getResources("classpath*:db/migration/V*__*.sql");
+        for (Resource r : resources) {
+            Matcher m = FILE_NAME.matcher(r.getFilename());
+            if (!m.matches()) {
+                continue;
+            }
+            String sql = r.getContentAsString(StandardCharsets.UTF_8);
+            migrations.add(new Migration(Integer.parseInt(m.group(1)), m.group(2).replace('_', ' '), sql, sha256(sql)));
+        }
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        return migrations;
+    }
+
+    // Statements end with ';' at the end of a line; "--" lines are comments
+    private static List<String> statements(String sql) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : sql.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            current.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                String statement = current.toString().trim();
+                statements.add(statement.substring(0, statement.length() - 1));
+                current.setLength(0);
+            }
+        }
+        if (!current.toString().isBlank()) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+
+    private static String sha256(String s) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
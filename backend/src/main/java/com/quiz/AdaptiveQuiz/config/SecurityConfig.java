@@ -44,6 +44,9 @@ public class SecurityConfig {
 
                                 // Authorization rules
                                 .authorizeHttpRequests(auth -> auth
+                                                // SSE completion re-dispatches without the JWT; the
+                                                // original request was already authorized
+                                                .dispatcherTypeMatchers(jakarta.servlet.DispatcherType.ASYNC).permitAll()
                                                 .requestMatchers("/api/auth/**").permitAll()
                                                 .requestMatchers("/api/quiz/**").authenticated()
                                                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
@@ -1,13 +1,28 @@
 package com.quiz.AdaptiveQuiz.controller;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.quiz.AdaptiveQuiz.config.DataInitializer;
+import com.quiz.AdaptiveQuiz.dto.AdminUserPageDTO;
+import com.quiz.AdaptiveQuiz.dto.DifficultyStatsDTO;
+import com.quiz.AdaptiveQuiz.dto.PasswordHashingStatsDTO;
+import com.quiz.AdaptiveQuiz.dto.StartupStatsDTO;
+import com.quiz.AdaptiveQuiz.dto.SubjectStatsDTO;
+import com.quiz.AdaptiveQuiz.dto.TimeSeriesPointDTO;
+import com.quiz.AdaptiveQuiz.entity.BucketGranularity;
+import com.quiz.AdaptiveQuiz.entity.Difficulty;
 import com.quiz.AdaptiveQuiz.service.AdminAnalyticsService;
+import com.quiz.AdaptiveQuiz.service.AnalyticsTimeSeriesService;
+import com.quiz.AdaptiveQuiz.service.LoginAdmissionService;
+import com.quiz.AdaptiveQuiz.service.PasswordHashingService;
 
 @RestController
 @RequestMapping("/api/admin/analytics")
@@ -15,9 +30,21 @@ import com.quiz.AdaptiveQuiz.service.AdminAnalyticsService;
 public class AdminAnalyticsController {
 
     private final AdminAnalyticsService analyticsService;
+    private final AnalyticsTimeSeriesService timeSeriesService;
+    private final PasswordHashingService passwordHashing;
+    private final LoginAdmissionService admission;
+    private final DataInitializer dataInitializer;
 
-    public AdminAnalyticsController(AdminAnalyticsService analyticsService) {
+    public AdminAnalyticsController(AdminAnalyticsService analyticsService,
+            AnalyticsTimeSeriesService timeSeriesService,
+            PasswordHashingService passwordHashing,
+            LoginAdmissionService admission,
+            DataInitializer dataInitializer) {
         this.analyticsService = analyticsService;
+        this.timeSeriesService = timeSeriesService;
+        this.passwordHashing = passwordHashing;
+        this.admission = admission;
+        this.dataInitializer = dataInitializer;
     }
 
     @GetMapping("/system")
@@ -26,20 +53,38 @@ public class AdminAnalyticsController {
     }
 
     @GetMapping("/subject")
-    public List<Object[]> subjectAnalytics() {
+    public List<SubjectStatsDTO> subjectAnalytics() {
         return analyticsService.getSubjectAnalytics();
     }
 
     @GetMapping("/user")
-    public List<Object[]> userAnalytics() {
-        return analyticsService.getUserAnalytics();
+    public AdminUserPageDTO userAnalytics(
+            @RequestParam(defaultValue = "accuracy") String sort,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Double afterAccuracy,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String provider,
+            @RequestParam(required = false) Boolean verified) {
+        return analyticsService.listUsers(sort, afterId, afterAccuracy, limit, role, provider, verified);
     }
 
     @GetMapping("/difficulty")
-    public List<Object[]> difficultyAnalytics() {
+    public List<DifficultyStatsDTO> difficultyAnalytics() {
         return analyticsService.getDifficultyDistribution();
     }
 
+    // Trend chart data, e.g. /timeseries?granularity=DAY&from=2026-01-01T00:00&to=2026-04-01T00:00
+    @GetMapping("/timeseries")
+    public List<TimeSeriesPointDTO> timeSeries(
+            @RequestParam(defaultValue = "DAY") BucketGranularity granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long subjectId,
+            @RequestParam(required = false) Difficulty difficulty) {
+        return timeSeriesService.getSeries(granularity, from, to, subjectId, difficulty);
+    }
+
     @GetMapping("/export/users")
     public org.springframework.http.ResponseEntity<byte[]> exportUserReport() {
         byte[] csvData = analyticsService.generateUserReportCsv();
@@ -50,4 +95,18 @@ public class AdminAnalyticsController {
                 .header(org.springframework.http.HttpHeaders.CONTENT_TYPE, "text/csv")
                 .body(csvData);
     }
+
+    // Password-hashing pool load: queue depth, rejections and admission-control refusals
+    @GetMapping("/password-hashing")
+    public PasswordHashingStatsDTO passwordHashingStats() {
+        PasswordHashingStatsDTO stats = passwordHashing.getStats();
+        stats.setAdmissionRejected(admission.getRejectedCount());
+        return stats;
+    }
+
+    // Time to ready and how long the background seeding took
+    @GetMapping("/startup")
+    public StartupStatsDTO startupStats() {
+        return dataInitializer.getStartupStats();
+    }
 }
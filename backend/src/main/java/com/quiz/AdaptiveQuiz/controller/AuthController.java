@@ -4,24 +4,31 @@ import java.util.Map;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.quiz.AdaptiveQuiz.dto.AuthUserDTO;
 import com.quiz.AdaptiveQuiz.dto.LoginRequest;
 import com.quiz.AdaptiveQuiz.dto.RegisterRequest;
-import com.quiz.AdaptiveQuiz.entity.User;
 import com.quiz.AdaptiveQuiz.security.JwtUtil;
+import com.quiz.AdaptiveQuiz.service.LoginAdmissionService;
 import com.quiz.AdaptiveQuiz.service.UserService;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
         private final UserService userService;
         private final JwtUtil jwtUtil;
+        private final LoginAdmissionService admission;
 
         public AuthController(UserService userService,
-                        JwtUtil jwtUtil) {
+                        JwtUtil jwtUtil,
+                        LoginAdmissionService admission) {
                 this.userService = userService;
                 this.jwtUtil = jwtUtil;
+                this.admission = admission;
         }
 
         // =====================
@@ -29,15 +36,19 @@ public class AuthController {
         // =====================
         @PostMapping("/register")
         public ResponseEntity<?> register(
-                        @RequestBody RegisterRequest request) {
+                        @RequestBody RegisterRequest request,
+                        HttpServletRequest http) {
 
                 try {
+                        admission.admit(http.getRemoteAddr(), null);
                         userService.register(
                                         request.getName(),
                                         request.getEmail(),
                                         request.getPassword());
 
                         return ResponseEntity.ok("REGISTERED SUCCESSFULLY");
+                } catch (ResponseStatusException e) {
+                        return ResponseEntity.status(e.getStatusCode()).body(Map.of("error", e.getReason()));
                 } catch (RuntimeException e) {
                         return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
                 }
@@ -57,20 +68,25 @@ public class AuthController {
         }
 
         @PostMapping("/login")
-        public ResponseEntity<?> login(@RequestBody LoginRequest request) {
+        public ResponseEntity<?> login(@RequestBody LoginRequest request, HttpServletRequest http) {
 
                 try {
-                        User user = userService.login(
+                        // Cheap per-IP / per-account check before any DB or BCrypt work
+                        admission.admit(http.getRemoteAddr(), request.getEmail());
+
+                        AuthUserDTO user = userService.login(
                                         request.getEmail(),
                                         request.getPassword());
 
-                        String token = jwtUtil.generateToken(user.getEmail(), user.getSessionId());
+                        String token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getSessionVersion());
 
                         return ResponseEntity.ok(
                                         Map.of(
                                                         "token", token,
                                                         "role", user.getRole(),
                                                         "userId", user.getId()));
+                } catch (ResponseStatusException e) {
+                        return ResponseEntity.status(e.getStatusCode()).body(Map.of("error", e.getReason()));
                 } catch (RuntimeException e) {
                         return ResponseEntity.status(401).body(Map.of("error", e.getMessage()));
                 }
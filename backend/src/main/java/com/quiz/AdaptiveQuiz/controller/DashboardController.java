@@ -1,10 +1,17 @@
 package com.quiz.AdaptiveQuiz.controller;
 
+import java.util.List;
+
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import com.quiz.AdaptiveQuiz.dto.UserDashboardDTO;
+import com.quiz.AdaptiveQuiz.dto.WeeklyLeaderboardDTO;
 import com.quiz.AdaptiveQuiz.service.DashboardService;
+import com.quiz.AdaptiveQuiz.service.ResourceVersionService;
+import com.quiz.AdaptiveQuiz.service.WeeklyLeaderboardService;
 
 @RestController
 @RequestMapping("/api/dashboard")
@@ -12,9 +19,15 @@ import com.quiz.AdaptiveQuiz.service.DashboardService;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final WeeklyLeaderboardService weeklyLeaderboard;
+    private final ResourceVersionService resourceVersions;
 
-    public DashboardController(DashboardService dashboardService) {
+    public DashboardController(DashboardService dashboardService,
+            WeeklyLeaderboardService weeklyLeaderboard,
+            ResourceVersionService resourceVersions) {
         this.dashboardService = dashboardService;
+        this.weeklyLeaderboard = weeklyLeaderboard;
+        this.resourceVersions = resourceVersions;
     }
 
     @GetMapping
@@ -24,8 +37,23 @@ public class DashboardController {
                 dashboardService.getDashboard(email));
     }
 
+    // Changes only when an attempt finishes or a user / subject is deleted;
+    // until then a revalidation is a 304 straight from memory
     @GetMapping("/leaderboard")
-    public ResponseEntity<?> getLeaderboard() {
-        return ResponseEntity.ok(dashboardService.getLeaderboard());
+    public ResponseEntity<?> getLeaderboard(WebRequest request) {
+        ResourceVersionService.Version v = resourceVersions.current(ResourceVersionService.LEADERBOARD);
+        if (v != null && request.checkNotModified(v.etag(), v.lastModifiedMs())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(dashboardService.getLeaderboard());
+    }
+
+    // Served from memory; see WeeklyLeaderboardService
+    @GetMapping("/leaderboard/weekly")
+    public ResponseEntity<List<WeeklyLeaderboardDTO>> getWeeklyLeaderboard(
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(weeklyLeaderboard.getTop(limit));
     }
 }
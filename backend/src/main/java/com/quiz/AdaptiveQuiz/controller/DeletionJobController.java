@@ -0,0 +1,30 @@
+package com.quiz.AdaptiveQuiz.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.quiz.AdaptiveQuiz.dto.DeletionJobDTO;
+import com.quiz.AdaptiveQuiz.service.BulkDeleteService;
+
+@RestController
+@RequestMapping("/api/admin/deletions")
+@CrossOrigin(origins = "http://localhost:5173")
+public class DeletionJobController {
+
+    private final BulkDeleteService bulkDelete;
+
+    public DeletionJobController(BulkDeleteService bulkDelete) {
+        this.bulkDelete = bulkDelete;
+    }
+
+    // Progress of a user/subject delete started from DELETE /api/user/{id} or /api/subjects/{id}
+    @GetMapping("/{jobId}")
+    public ResponseEntity<DeletionJobDTO> status(@PathVariable String jobId) {
+        DeletionJobDTO job = bulkDelete.getJob(jobId);
+        return job == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(job);
+    }
+}
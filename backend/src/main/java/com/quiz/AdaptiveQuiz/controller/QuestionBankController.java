@@ -0,0 +1,61 @@
+package com.quiz.AdaptiveQuiz.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.quiz.AdaptiveQuiz.dto.ImportReportDTO;
+import com.quiz.AdaptiveQuiz.service.QuestionBankService;
+import com.quiz.AdaptiveQuiz.service.QuestionBankService.Format;
+
+@RestController
+@RequestMapping("/api/admin/questions")
+@CrossOrigin(origins = "http://localhost:5173")
+public class QuestionBankController {
+
+    private final QuestionBankService questionBank;
+
+    public QuestionBankController(QuestionBankService questionBank) {
+        this.questionBank = questionBank;
+    }
+
+    // format=jsonl|csv, otherwise taken from the file extension
+    @PostMapping("/import")
+    public ImportReportDTO importQuestions(@RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return questionBank.importQuestions(in, Format.of(format, file.getOriginalFilename()), null);
+        }
+    }
+
+    @GetMapping("/import/status")
+    public ResponseEntity<ImportReportDTO> importStatus() {
+        ImportReportDTO report = questionBank.currentImport();
+        return report == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(report);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportQuestions(
+            @RequestParam(defaultValue = "jsonl") String format,
+            @RequestParam(required = false) Long subjectId) {
+        Format f = Format.of(format, null);
+        StreamingResponseBody body = out -> questionBank.exportQuestions(out, f, subjectId);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=questions." + f.name().toLowerCase())
+                .contentType(f == Format.CSV ? MediaType.parseMediaType("text/csv")
+                        : MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+}
@@ -2,15 +2,24 @@ package com.quiz.AdaptiveQuiz.controller;
 
 import java.util.List;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Map;
 
 import com.quiz.AdaptiveQuiz.dto.SubmitAnswerRequest;
 import com.quiz.AdaptiveQuiz.dto.SubmissionResponse;
 import com.quiz.AdaptiveQuiz.dto.QuizResultResponse;
+import com.quiz.AdaptiveQuiz.dto.ReviewDTO;
 import com.quiz.AdaptiveQuiz.entity.*;
 import com.quiz.AdaptiveQuiz.service.QuizService;
+import com.quiz.AdaptiveQuiz.service.ResourceVersionService;
 
 @RestController
 @RequestMapping("/api/quiz")
@@ -18,9 +27,11 @@ import com.quiz.AdaptiveQuiz.service.QuizService;
 public class QuizController {
 
     private final QuizService quizService;
+    private final com.quiz.AdaptiveQuiz.service.QuizTimerService quizTimer;
 
-    public QuizController(QuizService quizService) {
+    public QuizController(QuizService quizService, com.quiz.AdaptiveQuiz.service.QuizTimerService quizTimer) {
         this.quizService = quizService;
+        this.quizTimer = quizTimer;
     }
 
     // ================= START QUIZ =================
@@ -29,13 +40,12 @@ public class QuizController {
             @RequestParam Long userId,
             @RequestParam String subject) {
 
-        QuizAttempt attempt = quizService.startQuizByUserId(userId, subject);
-        AIQuestion q = quizService.getFirstQuestion(subject);
+        QuizService.StartedQuiz started = quizService.startQuiz(userId, subject);
 
         return ResponseEntity.ok(
                 Map.of(
-                        "attemptId", attempt.getAttemptId(),
-                        "question", q));
+                        "attemptId", started.attempt().getAttemptId(),
+                        "question", started.firstQuestion()));
     }
 
     // ================= SUBMIT ANSWER =================
@@ -64,20 +74,52 @@ public class QuizController {
     }
 
     // ================= RESULT =================
+    // A finished attempt never changes, so its tag is fixed and a client that
+    // has it gets a 304 before anything is read
     @GetMapping("/result/{attemptId}")
     public ResponseEntity<QuizResultResponse> getResult(
-            @PathVariable Long attemptId) {
+            @PathVariable Long attemptId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
-        return ResponseEntity.ok(
-                quizService.getResult(attemptId));
+        String etag = finalEtag("result", attemptId);
+        if (ResourceVersionService.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        QuizResultResponse result = quizService.getResult(attemptId);
+        return withFinalValidators(result.getFinishedAt(), etag).body(result);
     }
 
     @GetMapping("/review/{attemptId}")
-    public ResponseEntity<List<UserResponse>> getReview(
-            @PathVariable Long attemptId) {
+    public ResponseEntity<List<ReviewDTO>> getReview(
+            @PathVariable Long attemptId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
-        return ResponseEntity.ok(
-                quizService.getReview(attemptId));
+        String etag = finalEtag("review", attemptId);
+        if (ResourceVersionService.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        LocalDateTime finishedAt = quizService.getFinishedAt(attemptId);
+        // Answers are flushed right after the finishing commit; don't pin a review
+        // read in that window
+        if (finishedAt != null && finishedAt.isAfter(LocalDateTime.now().minusSeconds(10))) {
+            finishedAt = null;
+        }
+        return withFinalValidators(finishedAt, etag).body(quizService.getReview(attemptId));
+    }
+
+    private static String finalEtag(String kind, Long attemptId) {
+        return "\"" + kind + "-" + attemptId + "-final\"";
+    }
+
+    private static ResponseEntity.BodyBuilder withFinalValidators(LocalDateTime finishedAt, String etag) {
+        if (finishedAt == null) {
+            // Still running: every read must see the latest answers
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore());
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(etag)
+                .lastModified(finishedAt.atZone(ZoneId.systemDefault()));
     }
 
     // ================= STATUS (TIMER SYNC) =================
@@ -86,6 +128,13 @@ public class QuizController {
         return ResponseEntity.ok(quizService.getQuizStatus(attemptId));
     }
 
+    // Remaining-time ticks, then "expired" or "finished"; EventSource can't send
+    // headers, so the JWT may come as ?access_token=
+    @GetMapping(value = "/events/{attemptId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter quizEvents(@PathVariable Long attemptId) {
+        return quizTimer.subscribe(attemptId);
+    }
+
     // ================= DISCONNECT/TIMEOUT =================
     @PostMapping("/finish/{attemptId}")
     public ResponseEntity<?> finishQuiz(@PathVariable Long attemptId) {
@@ -2,8 +2,12 @@ package com.quiz.AdaptiveQuiz.controller;
 
 import com.quiz.AdaptiveQuiz.entity.Subject;
 import com.quiz.AdaptiveQuiz.repository.SubjectRepository;
+import com.quiz.AdaptiveQuiz.service.ResourceVersionService;
+import com.quiz.AdaptiveQuiz.service.SubjectRegistryService;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -14,20 +18,32 @@ public class SubjectController {
 
     private final SubjectRepository subjectRepo;
 
-    private final com.quiz.AdaptiveQuiz.repository.QuestionRepository questionRepo;
-    private final com.quiz.AdaptiveQuiz.repository.QuizAttemptRepository quizAttemptRepo;
+    private final com.quiz.AdaptiveQuiz.service.BulkDeleteService bulkDelete;
+
+    private final ResourceVersionService resourceVersions;
+
+    private final SubjectRegistryService subjectRegistry;
 
     public SubjectController(SubjectRepository subjectRepo,
-            com.quiz.AdaptiveQuiz.repository.QuestionRepository questionRepo,
-            com.quiz.AdaptiveQuiz.repository.QuizAttemptRepository quizAttemptRepo) {
+            com.quiz.AdaptiveQuiz.service.BulkDeleteService bulkDelete,
+            ResourceVersionService resourceVersions,
+            SubjectRegistryService subjectRegistry) {
         this.subjectRepo = subjectRepo;
-        this.questionRepo = questionRepo;
-        this.quizAttemptRepo = quizAttemptRepo;
+        this.bulkDelete = bulkDelete;
+        this.resourceVersions = resourceVersions;
+        this.subjectRegistry = subjectRegistry;
     }
 
+    // Revalidated on every use; an unchanged list is a 304, a changed one comes from the registry
     @GetMapping
-    public List<Subject> getAllSubjects() {
-        return subjectRepo.findAll();
+    public ResponseEntity<List<Subject>> getAllSubjects(WebRequest request) {
+        ResourceVersionService.Version v = resourceVersions.current(ResourceVersionService.SUBJECTS);
+        if (v != null && request.checkNotModified(v.etag(), v.lastModifiedMs())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(subjectRegistry.findAll());
     }
 
     @PostMapping
@@ -35,30 +51,19 @@ public class SubjectController {
         if (subjectRepo.existsByName(subject.getName())) {
             return ResponseEntity.badRequest().body("Subject already exists");
         }
-        return ResponseEntity.ok(subjectRepo.save(subject));
+        Subject saved = subjectRepo.save(subject);
+        resourceVersions.bump(ResourceVersionService.SUBJECTS);
+        subjectRegistry.reload();
+        return ResponseEntity.ok(saved);
     }
 
+    // Attempts, snapshots and questions go first, in chunks, on a background job;
+    // poll /api/admin/deletions/{jobId} for progress
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteSubject(@PathVariable Long id) {
-        try {
-            Subject subject = subjectRepo.findById(id).orElse(null);
-            if (subject == null) {
-                return ResponseEntity.notFound().build();
-            }
-
-           
-            // (JPA Cascade should handle this, but explicit delete is safer for existing
-            // bad state)
-            List<com.quiz.AdaptiveQuiz.entity.QuizAttempt> attempts = quizAttemptRepo.findBySubject(subject);
-            quizAttemptRepo.deleteAll(attempts);
-
-            List<com.quiz.AdaptiveQuiz.entity.Question> questions = questionRepo.findBySubject(subject);
-            questionRepo.deleteAll(questions);
-
-            subjectRepo.delete(subject);
-            return ResponseEntity.ok("Subject deleted successfully");
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Error deleting subject: " + e.getMessage());
+        if (!subjectRepo.existsById(id)) {
+            return ResponseEntity.notFound().build();
         }
+        return ResponseEntity.accepted().body(bulkDelete.deleteSubject(id));
     }
 }
@@ -5,7 +5,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.util.Base64;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/user")
@@ -13,42 +12,31 @@ import java.util.List;
 public class UserController {
 
     private final com.quiz.AdaptiveQuiz.repository.UserRepository userRepository;
-    private final org.springframework.security.crypto.password.PasswordEncoder passwordEncoder;
+    private final com.quiz.AdaptiveQuiz.service.PasswordHashingService passwordHashing;
+    private final com.quiz.AdaptiveQuiz.service.LoginAdmissionService admission;
 
-    private final com.quiz.AdaptiveQuiz.repository.QuizAttemptRepository quizAttemptRepo;
-    private final com.quiz.AdaptiveQuiz.repository.SkillSnapshotRepository skillSnapshotRepo;
+    private final com.quiz.AdaptiveQuiz.service.AdminAnalyticsService analyticsService;
+    private final com.quiz.AdaptiveQuiz.service.BulkDeleteService bulkDelete;
 
     public UserController(com.quiz.AdaptiveQuiz.repository.UserRepository userRepository,
-            org.springframework.security.crypto.password.PasswordEncoder passwordEncoder,
-            com.quiz.AdaptiveQuiz.repository.QuizAttemptRepository quizAttemptRepo,
-            com.quiz.AdaptiveQuiz.repository.SkillSnapshotRepository skillSnapshotRepo) {
+            com.quiz.AdaptiveQuiz.service.PasswordHashingService passwordHashing,
+            com.quiz.AdaptiveQuiz.service.LoginAdmissionService admission,
+            com.quiz.AdaptiveQuiz.service.AdminAnalyticsService analyticsService,
+            com.quiz.AdaptiveQuiz.service.BulkDeleteService bulkDelete) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
-        this.quizAttemptRepo = quizAttemptRepo;
-        this.skillSnapshotRepo = skillSnapshotRepo;
+        this.passwordHashing = passwordHashing;
+        this.admission = admission;
+        this.analyticsService = analyticsService;
+        this.bulkDelete = bulkDelete;
     }
 
+    // Runs in the background; poll /api/admin/deletions/{jobId} for progress
     @DeleteMapping("/{id}")
-    @org.springframework.transaction.annotation.Transactional
     public ResponseEntity<?> deleteUser(@PathVariable Long id) {
-        try {
-            com.quiz.AdaptiveQuiz.entity.User user = userRepository.findById(id).orElse(null);
-            if (user == null) {
-                return ResponseEntity.notFound().build();
-            }
-
-            // Explicitly delete children
-            List<com.quiz.AdaptiveQuiz.entity.QuizAttempt> attempts = quizAttemptRepo.findByUser(user);
-            quizAttemptRepo.deleteAll(attempts);
-
-            List<com.quiz.AdaptiveQuiz.entity.SkillSnapshot> snapshots = skillSnapshotRepo.findByUser(user);
-            skillSnapshotRepo.deleteAll(snapshots);
-
-            userRepository.delete(user);
-            return ResponseEntity.ok("User deleted successfully");
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Error deleting user: " + e.getMessage());
+        if (!userRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
         }
+        return ResponseEntity.accepted().body(bulkDelete.deleteUser(id));
     }
 
     // ================= GET PROFILE =================
@@ -131,7 +119,10 @@ public class UserController {
     // ================= CHANGE PASSWORD =================
     @PostMapping("/change-password")
     public ResponseEntity<?> changePassword(@RequestParam String email,
-            @RequestBody java.util.Map<String, String> passwords) {
+            @RequestBody java.util.Map<String, String> passwords,
+            jakarta.servlet.http.HttpServletRequest request) {
+        admission.admit(request.getRemoteAddr(), email);
+
         com.quiz.AdaptiveQuiz.entity.User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -139,12 +130,12 @@ public class UserController {
         String newPass = passwords.get("newPassword");
 
         // Verify Old Password
-        if (!passwordEncoder.matches(oldPass, user.getPassword())) {
+        if (!passwordHashing.matches(oldPass, user.getPassword())) {
             return ResponseEntity.badRequest().body("Incorrect old password");
         }
 
         // Encode New Password
-        user.setPassword(passwordEncoder.encode(newPass));
+        user.setPassword(passwordHashing.encode(newPass));
         userRepository.save(user);
 
         return ResponseEntity.ok("Password changed successfully");
@@ -154,8 +145,16 @@ public class UserController {
     // Removed duplicate deleteUser method
 
     // ================= GET ALL USERS (ADMIN) =================
+    // Keyset paged: pass nextAfterId / nextAfterAccuracy from the previous page
     @GetMapping("/all")
-    public java.util.List<Object[]> getAllUsers() {
-        return userRepository.findAllWithStats();
+    public com.quiz.AdaptiveQuiz.dto.AdminUserPageDTO getAllUsers(
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Double afterAccuracy,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String provider,
+            @RequestParam(required = false) Boolean verified) {
+        return analyticsService.listUsers(sort, afterId, afterAccuracy, limit, role, provider, verified);
     }
 }
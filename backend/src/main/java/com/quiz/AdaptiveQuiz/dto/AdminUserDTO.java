@@ -0,0 +1,66 @@
+package com.quiz.AdaptiveQuiz.dto;
+
+// Flat row for the admin user table. Built straight from a JPQL constructor
+// expression so the User entity (password hash, profile image BLOB) is never loaded.
+public class AdminUserDTO {
+
+    private Long id;
+    private String name;
+    private String email;
+    private String role;
+    private String provider;
+    private boolean verified;
+    private double avgAccuracy;
+    private long totalQuizzes;
+
+    public AdminUserDTO(
+            Long id,
+            String name,
+            String email,
+            String role,
+            String provider,
+            boolean verified,
+            double avgAccuracy,
+            long totalQuizzes) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.role = role;
+        this.provider = provider;
+        this.verified = verified;
+        this.avgAccuracy = avgAccuracy;
+        this.totalQuizzes = totalQuizzes;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public boolean isVerified() {
+        return verified;
+    }
+
+    public double getAvgAccuracy() {
+        return avgAccuracy;
+    }
+
+    public long getTotalQuizzes() {
+        return totalQuizzes;
+    }
+}
@@ -0,0 +1,36 @@
+package com.quiz.AdaptiveQuiz.dto;
+
+import java.util.List;
+
+// One keyset page of the admin user listing. The client passes nextAfterId
+// (and nextAfterAccuracy when sorting by accuracy) back to fetch the next page.
+public class AdminUserPageDTO {
+
+    private List<AdminUserDTO> users;
+    private boolean hasMore;
+    private Long nextAfterId;
+    private Double nextAfterAccuracy;
+
+    public AdminUserPageDTO(List<AdminUserDTO> users, boolean hasMore, Long nextAfterId, Double nextAfterAccuracy) {
+        this.users = users;
+        this.hasMore = hasMore;
+        this.nextAfterId = nextAfterId;
+        this.nextAfterAccuracy = nextAfterAccuracy;
+    }
+
+    public List<AdminUserDTO> getUsers() {
+        return users;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public Long getNextAfterId() {
+        return nextAfterId;
+    }
+
+    public Double getNextAfterAccuracy() {
+        return nextAfterAccuracy;
+    }
+}
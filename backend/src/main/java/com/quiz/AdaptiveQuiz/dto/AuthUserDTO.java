@@ -0,0 +1,33 @@
+package com.quiz.AdaptiveQuiz.dto;
+
+// Result of a successful login: what the controllers need to mint a JWT
+public class AuthUserDTO {
+
+    private Long id;
+    private String email;
+    private String role;
+    private int sessionVersion;
+
+    public AuthUserDTO(Long id, String email, String role, int sessionVersion) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.sessionVersion = sessionVersion;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public int getSessionVersion() {
+        return sessionVersion;
+    }
+}
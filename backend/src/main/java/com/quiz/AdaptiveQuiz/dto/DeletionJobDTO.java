@@ -0,0 +1,66 @@
+package com.quiz.AdaptiveQuiz.dto;
+
+import java.time.LocalDateTime;
+
+public class DeletionJobDTO {
+
+    private String id;
+    private String kind;
+    private Long targetId;
+    private String status;
+    private String step;
+    private long rowsDeleted;
+    private String error;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public DeletionJobDTO(String id, String kind, Long targetId, String status, String step, long rowsDeleted,
+            String error, LocalDateTime startedAt, LocalDateTime finishedAt) {
+        this.id = id;
+        this.kind = kind;
+        this.targetId = targetId;
+        this.status = status;
+        this.step = step;
+        this.rowsDeleted = rowsDeleted;
+        this.error = error;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public Long getTargetId() {
+        return targetId;
+    }
+
+    // QUEUED, RUNNING, DONE or FAILED
+    public String getStatus() {
+        return status;
+    }
+
+    public String getStep() {
+        return step;
+    }
+
+    public long getRowsDeleted() {
+        return rowsDeleted;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+}
@@ -0,0 +1,26 @@
+package com.quiz.AdaptiveQuiz.dto;
+
+public class DifficultyStatsDTO {
+
+    private String difficulty;
+    private long correct;
+    private long wrong;
+
+    public DifficultyStatsDTO(String difficulty, long correct, long wrong) {
+        this.difficulty = difficulty;
+        this.correct = correct;
+        this.wrong = wrong;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    public long getCorrect() {
+        return correct;
+    }
+
+    public long getWrong() {
+        return wrong;
+    }
+}
@@ -0,0 +1,59 @@
+package com.quiz.AdaptiveQuiz.dto;
+
+import java.util.List;
+
+public class ImportReportDTO {
+
+    private boolean finished;
+    private long records;
+    private long inserted;
+    private long duplicates;
+    private long invalid;
+    private long elapsedMs;
+    private List<ImportErrorDTO> errors;
+    private boolean errorsTruncated;
+
+    public ImportReportDTO(boolean finished, long records, long inserted, long duplicates, long invalid,
+            long elapsedMs, List<ImportErrorDTO> errors, boolean errorsTruncated) {
+        this.finished = finished;
+        this.records = records;
+        this.inserted = inserted;
+        this.duplicates = duplicates;
+        this.invalid = invalid;
+        this.elapsedMs = elapsedMs;
+        this.errors = errors;
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public long getInvalid() {
+        return invalid;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public List<ImportErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+}
@@ -0,0 +1,40 @@
+package com.quiz.AdaptiveQuiz.dto;
+
+// Just the columns a login needs. Loaded with a constructor expression so the
+// User row (and its profile image BLOB) is never materialized on the auth path.
+public class LoginCredentialsDTO {
+
+    private Long id;
+    private String email;
+    private String password;
+    private String role;
+    private boolean verified;
+
+    public LoginCredentialsDTO(Long id, String email, String password, String role, boolean verified) {
+        this.id = id;
+        this.email = email;
+        this.password = password;
+        this.role = role;
+        this.verified = verified;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public boolean isVerified() {
+        return verified;
+    }
+}
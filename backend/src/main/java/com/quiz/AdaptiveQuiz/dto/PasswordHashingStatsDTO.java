@@ -0,0 +1,60 @@
+package com.quiz.AdaptiveQuiz.dto;
+
+public class PasswordHashingStatsDTO {
+
+    private int poolSize;
+    private int active;
+    private int queued;
+    private int queueCapacity;
+    private long completed;
+    private long rejected;
+    private long timedOut;
+    private long admissionRejected;
+
+    public PasswordHashingStatsDTO(int poolSize, int active, int queued, int queueCapacity, long completed,
+            long rejected, long timedOut) {
+        this.poolSize = poolSize;
+        this.active = active;
+        this.queued = queued;
+        this.queueCapacity = queueCapacity;
+        this.completed = completed;
+        this.rejected = rejected;
+        this.timedOut = timedOut;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getTimedOut() {
+        return timedOut;
+    }
+
+    public long getAdmissionRejected() {
+        return admissionRejected;
+    }
+
+    public void setAdmissionRejected(long admissionRejected) {
+        this.admissionRejected = admissionRejected;
+    }
+}
@@ -10,6 +10,8 @@ public class QuizResultResponse {
     private int wrongAnswers;
     private int skippedAnswers;
     private double accuracy;
+    // null while the attempt is running
+    private java.time.LocalDateTime finishedAt;
 
     public QuizResultResponse(
             Subject subject,
@@ -17,7 +19,8 @@ public class QuizResultResponse {
             int correctAnswers,
             int wrongAnswers,
             int skippedAnswers,
-            double accuracy) {
+            double accuracy,
+            java.time.LocalDateTime finishedAt) {
 
         this.subject = subject;
         this.totalQuestions = totalQuestions;
@@ -25,6 +28,7 @@ public class QuizResultResponse {
         this.wrongAnswers = wrongAnswers;
         this.skippedAnswers = skippedAnswers;
         this.accuracy = accuracy;
+        this.finishedAt = finishedAt;
     }
 
     public Subject getSubject() {
@@ -50,4 +54,8 @@ public class QuizResultResponse {
     public double getAccuracy() {
         return accuracy;
     }
+
+    public java.time.LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
 }
@@ -22,6 +22,18 @@ public class ReviewDTO {
         this.difficulty = difficulty;
     }
 
+    // Used by the JPQL constructor projection in UserResponseRepository
+    public ReviewDTO(
+            String questionText,
+            String selectedAnswer,
+            String correctAnswer,
+            boolean correct,
+            com.quiz.AdaptiveQuiz.entity.Difficulty difficulty
+    ) {
+        this(questionText, selectedAnswer, correctAnswer, correct,
+                difficulty != null ? difficulty.name() : null);
+    }
+
     public String getQuestionText() {
         return questionText;
     }
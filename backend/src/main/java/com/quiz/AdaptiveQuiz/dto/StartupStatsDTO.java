@@ -0,0 +1,34 @@
+package com.quiz.AdaptiveQuiz.dto;
+
+public class StartupStatsDTO {
+
+    private long startupMs;
+    private long seedMs;
+    private int subjectsSeeded;
+    private int questionsSeeded;
+
+    public StartupStatsDTO(long startupMs, long seedMs, int subjectsSeeded, int questionsSeeded) {
+        this.startupMs = startupMs;
+        this.seedMs = seedMs;
+        this.subjectsSeeded = subjectsSeeded;
+        this.questionsSeeded = questionsSeeded;
+    }
+
+    // JVM start until ApplicationReady; -1 if unknown
+    public long getStartupMs() {
+        return startupMs;
+    }
+
+    // Background seeding duration; -1 until it has run
+    public long getSeedMs() {
+        return seedMs;
+    }
+
+    public int getSubjectsSeeded() {
+        return subjectsSeeded;
+    }
+
+    public int getQuestionsSeeded() {
+        return questionsSeeded;
+    }
+}
@@ -0,0 +1,32 @@
+package com.quiz.AdaptiveQuiz.dto;
+
+public class SubjectStatsDTO {
+
+    private Long subjectId;
+    private String subjectName;
+    private double avgAccuracy;
+    private long totalAttempts;
+
+    public SubjectStatsDTO(Long subjectId, String subjectName, double avgAccuracy, long totalAttempts) {
+        this.subjectId = subjectId;
+        this.subjectName = subjectName;
+        this.avgAccuracy = avgAccuracy;
+        this.totalAttempts = totalAttempts;
+    }
+
+    public Long getSubjectId() {
+        return subjectId;
+    }
+
+    public String getSubjectName() {
+        return subjectName;
+    }
+
+    public double getAvgAccuracy() {
+        return avgAccuracy;
+    }
+
+    public long getTotalAttempts() {
+        return totalAttempts;
+    }
+}
@@ -0,0 +1,53 @@
+package com.quiz.AdaptiveQuiz.dto;
+
+import java.time.LocalDateTime;
+
+public class TimeSeriesPointDTO {
+
+    private LocalDateTime bucketStart;
+    private long attempts;
+    private long answers;
+    private long correct;
+    private long skipped;
+    private double accuracy;
+    private double avgResponseMs;
+
+    public TimeSeriesPointDTO(LocalDateTime bucketStart, long attempts, long answers, long correct, long skipped,
+            double accuracy, double avgResponseMs) {
+        this.bucketStart = bucketStart;
+        this.attempts = attempts;
+        this.answers = answers;
+        this.correct = correct;
+        this.skipped = skipped;
+        this.accuracy = accuracy;
+        this.avgResponseMs = avgResponseMs;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public long getAttempts() {
+        return attempts;
+    }
+
+    public long getAnswers() {
+        return answers;
+    }
+
+    public long getCorrect() {
+        return correct;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public double getAccuracy() {
+        return accuracy;
+    }
+
+    public double getAvgResponseMs() {
+        return avgResponseMs;
+    }
+}
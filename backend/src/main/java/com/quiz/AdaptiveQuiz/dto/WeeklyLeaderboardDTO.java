@@ -0,0 +1,38 @@
+package com.quiz.AdaptiveQuiz.dto;
+
+public class WeeklyLeaderboardDTO {
+
+    private int rank;
+    private Long userId;
+    private String name;
+    private double avgAccuracy;
+    private int quizzesTaken;
+
+    public WeeklyLeaderboardDTO(int rank, Long userId, String name, double avgAccuracy, int quizzesTaken) {
+        this.rank = rank;
+        this.userId = userId;
+        this.name = name;
+        this.avgAccuracy = avgAccuracy;
+        this.quizzesTaken = quizzesTaken;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getAvgAccuracy() {
+        return avgAccuracy;
+    }
+
+    public int getQuizzesTaken() {
+        return quizzesTaken;
+    }
+}
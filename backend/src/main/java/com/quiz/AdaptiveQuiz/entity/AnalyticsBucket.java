@@ -0,0 +1,132 @@
+package com.quiz.AdaptiveQuiz.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+// One time-series cell: counters for (bucket start, subject, difficulty).
+// HOUR rows are written by AnalyticsTimeSeriesService and compacted into DAY rows with age.
+@Entity
+@Table(name = "analytics_buckets", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_analytics_bucket", columnNames = {
+                "granularity", "bucket_start", "subject_id", "difficulty" })
+})
+public class AnalyticsBucket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private BucketGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "subject_id", nullable = false)
+    private Long subjectId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Difficulty difficulty;
+
+    private long attempts;
+    private long answers;
+
+    @Column(name = "correct_answers")
+    private long correctAnswers;
+
+    @Column(name = "skipped_answers")
+    private long skippedAnswers;
+
+    @Column(name = "response_time_ms_sum")
+    private long responseTimeMsSum;
+
+    @Column(name = "response_time_count")
+    private long responseTimeCount;
+
+    public Long getId() {
+        return id;
+    }
+
+    public BucketGranularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(BucketGranularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public Long getSubjectId() {
+        return subjectId;
+    }
+
+    public void setSubjectId(Long subjectId) {
+        this.subjectId = subjectId;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(Difficulty difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public long getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(long attempts) {
+        this.attempts = attempts;
+    }
+
+    public long getAnswers() {
+        return answers;
+    }
+
+    public void setAnswers(long answers) {
+        this.answers = answers;
+    }
+
+    public long getCorrectAnswers() {
+        return correctAnswers;
+    }
+
+    public void setCorrectAnswers(long correctAnswers) {
+        this.correctAnswers = correctAnswers;
+    }
+
+    public long getSkippedAnswers() {
+        return skippedAnswers;
+    }
+
+    public void setSkippedAnswers(long skippedAnswers) {
+        this.skippedAnswers = skippedAnswers;
+    }
+
+    public long getResponseTimeMsSum() {
+        return responseTimeMsSum;
+    }
+
+    public void setResponseTimeMsSum(long responseTimeMsSum) {
+        this.responseTimeMsSum = responseTimeMsSum;
+    }
+
+    public long getResponseTimeCount() {
+        return responseTimeCount;
+    }
+
+    public void setResponseTimeCount(long responseTimeCount) {
+        this.responseTimeCount = responseTimeCount;
+    }
+}
@@ -0,0 +1,6 @@
+package com.quiz.AdaptiveQuiz.entity;
+
+public enum BucketGranularity {
+    HOUR,
+    DAY
+}
@@ -0,0 +1,51 @@
+package com.quiz.AdaptiveQuiz.entity;
+
+import jakarta.persistence.*;
+
+// Running answer counts per difficulty over user_response, maintained by AnalyticsRollupService.
+@Entity
+@Table(name = "difficulty_stats")
+public class DifficultyStats {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "difficulty")
+    private Difficulty difficulty;
+
+    @Column(name = "correct_count", nullable = false)
+    private long correctCount;
+
+    @Column(name = "wrong_count", nullable = false)
+    private long wrongCount;
+
+    public DifficultyStats() {
+    }
+
+    public DifficultyStats(Difficulty difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(Difficulty difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public long getCorrectCount() {
+        return correctCount;
+    }
+
+    public void setCorrectCount(long correctCount) {
+        this.correctCount = correctCount;
+    }
+
+    public long getWrongCount() {
+        return wrongCount;
+    }
+
+    public void setWrongCount(long wrongCount) {
+        this.wrongCount = wrongCount;
+    }
+}
@@ -0,0 +1,7 @@
+package com.quiz.AdaptiveQuiz.entity;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
@@ -4,11 +4,13 @@ import jakarta.persistence.*;
 import java.util.List;
 
 @Entity
-@Table(name = "questions")
+@Table(name = "questions", indexes = @Index(name = "idx_questions_content_hash", columnList = "content_hash"))
 public class Question {
 
+    // Pooled ids (see IdSequenceAligner): unlike IDENTITY they let Hibernate batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "question_seq")
+    @SequenceGenerator(name = "question_seq", sequenceName = "question_seq", allocationSize = 50)
     private Long id;
 
     @Column(columnDefinition = "TEXT", nullable = false)
@@ -30,6 +32,21 @@ public class Question {
     @Column(nullable = false)
     private Difficulty difficulty;
 
+    // SHA-256 of subject + normalized content; used to skip duplicates on bulk import
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // Written only by DifficultyCalibrationService (from user_response), never by the entity
+    @Column(name = "answered_count", columnDefinition = "INT NOT NULL DEFAULT 0", insertable = false, updatable = false)
+    private int answeredCount;
+
+    @Column(name = "correct_count", columnDefinition = "INT NOT NULL DEFAULT 0", insertable = false, updatable = false)
+    private int correctCount;
+
+    // NEVER_CORRECT / ALWAYS_CORRECT once enough answers are in: likely a wrong key or a giveaway
+    @Column(name = "calibration_flag", length = 20, insertable = false, updatable = false)
+    private String calibrationFlag;
+
     public Question() {
     }
 
@@ -42,6 +59,12 @@ public class Question {
         this.difficulty = difficulty;
     }
 
+    @PrePersist
+    @PreUpdate
+    void computeContentHash() {
+        contentHash = com.quiz.AdaptiveQuiz.util.ContentHash.of(subject.getId(), content);
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -90,4 +113,20 @@ public class Question {
     public void setDifficulty(Difficulty difficulty) {
         this.difficulty = difficulty;
     }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public int getAnsweredCount() {
+        return answeredCount;
+    }
+
+    public int getCorrectCount() {
+        return correctCount;
+    }
+
+    public String getCalibrationFlag() {
+        return calibrationFlag;
+    }
 }
@@ -8,7 +8,8 @@ import jakarta.persistence.*;
 public class QuizAttempt {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quiz_attempt_seq")
+    @SequenceGenerator(name = "quiz_attempt_seq", sequenceName = "quiz_attempt_seq", allocationSize = 50)
     private Long attemptId;
 
     @ManyToOne
@@ -33,6 +34,11 @@ public class QuizAttempt {
     private int skippedAnswers;
     private double accuracy;
 
+    // Answers submitted so far. Unlike the counters above it is not padded when an
+    // unfinished attempt is finished; answer-log replay checks entries against it
+    @Column(name = "answer_seq", nullable = false)
+    private int answerSeq;
+
     @OneToMany(mappedBy = "attempt", cascade = CascadeType.ALL, orphanRemoval = true)
     private java.util.List<UserResponse> userResponses = new java.util.ArrayList<>();
 
@@ -110,6 +116,14 @@ public class QuizAttempt {
         this.wrongAnswers = wrongAnswers;
     }
 
+    public int getAnswerSeq() {
+        return answerSeq;
+    }
+
+    public void setAnswerSeq(int answerSeq) {
+        this.answerSeq = answerSeq;
+    }
+
     public int getSkippedAnswers() {
         return skippedAnswers;
     }
@@ -9,7 +9,8 @@ import jakarta.persistence.*;
 public class SkillSnapshot {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "skill_snapshot_seq")
+    @SequenceGenerator(name = "skill_snapshot_seq", sequenceName = "skill_snapshot_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
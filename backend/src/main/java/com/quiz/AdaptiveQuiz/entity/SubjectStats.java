@@ -0,0 +1,50 @@
+package com.quiz.AdaptiveQuiz.entity;
+
+import jakarta.persistence.*;
+
+// Running per-subject totals over quiz_attempt, maintained by AnalyticsRollupService.
+@Entity
+@Table(name = "subject_stats")
+public class SubjectStats {
+
+    @Id
+    @Column(name = "subject_id")
+    private Long subjectId;
+
+    @Column(name = "attempt_count", nullable = false)
+    private long attemptCount;
+
+    @Column(name = "accuracy_sum", nullable = false)
+    private double accuracySum;
+
+    public SubjectStats() {
+    }
+
+    public SubjectStats(Long subjectId) {
+        this.subjectId = subjectId;
+    }
+
+    public Long getSubjectId() {
+        return subjectId;
+    }
+
+    public void setSubjectId(Long subjectId) {
+        this.subjectId = subjectId;
+    }
+
+    public long getAttemptCount() {
+        return attemptCount;
+    }
+
+    public void setAttemptCount(long attemptCount) {
+        this.attemptCount = attemptCount;
+    }
+
+    public double getAccuracySum() {
+        return accuracySum;
+    }
+
+    public void setAccuracySum(double accuracySum) {
+        this.accuracySum = accuracySum;
+    }
+}
@@ -2,11 +2,14 @@ package com.quiz.AdaptiveQuiz.entity;
 
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
@@ -14,7 +17,8 @@ import jakarta.persistence.Table;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -26,10 +30,13 @@ public class User {
     private String bio;
     private String address;
 
+    // Never serialize credentials, session state or the image BLOB; responses use DTOs
+    @JsonIgnore
     @jakarta.persistence.Lob
     @Column(length = 1000000)
     private byte[] profileImage;
 
+    @JsonIgnore
     private String password;
 
     private String role; // STUDENT / ADMIN
@@ -37,12 +44,19 @@ public class User {
     @Column(name = "is_verified", nullable = false)
     private boolean verified = false; // Default false until verified
 
+    @JsonIgnore
     private String verificationToken;
 
     private String provider = "LOCAL";
 
-    // For single session tracking
-    private String sessionId;
+    // Single-session enforcement: bumped on every login, carried in the JWT
+    // and compared in memory by SessionVersionService. Written only by the
+    // narrow UPDATEs in UserRepository: a save() of an entity loaded earlier
+    // must never put back a stale version.
+    @JsonIgnore
+    @Column(name = "session_version", nullable = false, columnDefinition = "int default 0",
+            insertable = false, updatable = false)
+    private int sessionVersion = 0;
 
     @jakarta.persistence.OneToMany(mappedBy = "user", cascade = jakarta.persistence.CascadeType.ALL, orphanRemoval = true)
     private java.util.List<QuizAttempt> quizAttempts = new java.util.ArrayList<>();
@@ -142,12 +156,12 @@ public class User {
         this.provider = provider;
     }
 
-    public String getSessionId() {
-        return sessionId;
+    public int getSessionVersion() {
+        return sessionVersion;
     }
 
-    public void setSessionId(String sessionId) {
-        this.sessionId = sessionId;
+    public void setSessionVersion(int sessionVersion) {
+        this.sessionVersion = sessionVersion;
     }
 
     public LocalDateTime getCreatedAt() {
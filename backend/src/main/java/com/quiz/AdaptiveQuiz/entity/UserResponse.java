@@ -10,6 +10,7 @@ public class UserResponse {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @com.fasterxml.jackson.annotation.JsonIgnore
     @ManyToOne
     @JoinColumn(name = "attempt_id", nullable = false)
     private QuizAttempt attempt;
@@ -33,6 +34,10 @@ public class UserResponse {
     @Column(name = "created_at")
     private java.time.LocalDateTime createdAt = java.time.LocalDateTime.now();
 
+    // Answer-log entry id; makes replaying the write-behind log idempotent
+    @Column(name = "log_id", length = 36, unique = true)
+    private String logId;
+
     // ===== GETTERS & SETTERS =====
 
     public Long getId() {
@@ -94,4 +99,12 @@ public class UserResponse {
     public void setCreatedAt(java.time.LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public String getLogId() {
+        return logId;
+    }
+
+    public void setLogId(String logId) {
+        this.logId = logId;
+    }
 }
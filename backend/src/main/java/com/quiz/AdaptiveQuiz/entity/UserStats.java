@@ -0,0 +1,64 @@
+package com.quiz.AdaptiveQuiz.entity;
+
+import jakarta.persistence.*;
+
+// Precomputed per-user quiz aggregate. Maintained incrementally by
+// UserStatsService so the admin user listing never has to GROUP BY quiz_attempt.
+@Entity
+@Table(name = "user_stats", indexes = {
+        @Index(name = "idx_user_stats_accuracy", columnList = "avg_accuracy, user_id")
+})
+public class UserStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "attempt_count", nullable = false)
+    private long attemptCount;
+
+    @Column(name = "accuracy_sum", nullable = false)
+    private double accuracySum;
+
+    @Column(name = "avg_accuracy", nullable = false)
+    private double avgAccuracy;
+
+    public UserStats() {
+    }
+
+    public UserStats(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public long getAttemptCount() {
+        return attemptCount;
+    }
+
+    public void setAttemptCount(long attemptCount) {
+        this.attemptCount = attemptCount;
+    }
+
+    public double getAccuracySum() {
+        return accuracySum;
+    }
+
+    public void setAccuracySum(double accuracySum) {
+        this.accuracySum = accuracySum;
+    }
+
+    public double getAvgAccuracy() {
+        return avgAccuracy;
+    }
+
+    public void setAvgAccuracy(double avgAccuracy) {
+        this.avgAccuracy = avgAccuracy;
+    }
+}
@@ -0,0 +1,84 @@
+package com.quiz.AdaptiveQuiz.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.quiz.AdaptiveQuiz.entity.AnalyticsBucket;
+import com.quiz.AdaptiveQuiz.entity.BucketGranularity;
+
+public interface AnalyticsBucketRepository extends JpaRepository<AnalyticsBucket, Long> {
+
+    // Atomic add-or-create so concurrent flushes (or several nodes) never lose counts
+    @Transactional
+    @Modifying
+    @Query(value = """
+                INSERT INTO analytics_buckets (granularity, bucket_start, subject_id, difficulty,
+                        attempts, answers, correct_answers, skipped_answers, response_time_ms_sum, response_time_count)
+                VALUES (:granularity, :bucketStart, :subjectId, :difficulty,
+                        :attempts, :answers, :correct, :skipped, :responseMs, :responseCount)
+                ON DUPLICATE KEY UPDATE
+                    attempts = attempts + VALUES(attempts),
+                    answers = answers + VALUES(answers),
+                    correct_answers = correct_answers + VALUES(correct_answers),
+                    skipped_answers = skipped_answers + VALUES(skipped_answers),
+                    response_time_ms_sum = response_time_ms_sum + VALUES(response_time_ms_sum),
+                    response_time_count = response_time_count + VALUES(response_time_count)
+            """, nativeQuery = true)
+    void addCounts(@Param("granularity") String granularity,
+            @Param("bucketStart") LocalDateTime bucketStart,
+            @Param("subjectId") Long subjectId,
+            @Param("difficulty") String difficulty,
+            @Param("attempts") long attempts,
+            @Param("answers") long answers,
+            @Param("correct") long correct,
+            @Param("skipped") long skipped,
+            @Param("responseMs") long responseMs,
+            @Param("responseCount") long responseCount);
+
+    // Rolls HOUR rows older than the cutoff into their DAY rows
+    @Modifying
+    @Query(value = """
+                INSERT INTO analytics_buckets (granularity, bucket_start, subject_id, difficulty,
+                        attempts, answers, correct_answers, skipped_answers, response_time_ms_sum, response_time_count)
+                SELECT 'DAY', DATE(h.bucket_start), h.subject_id, h.difficulty,
+                        SUM(h.attempts), SUM(h.answers), SUM(h.correct_answers), SUM(h.skipped_answers),
+                        SUM(h.response_time_ms_sum), SUM(h.response_time_count)
+                FROM analytics_buckets h
+                WHERE h.granularity = 'HOUR' AND h.bucket_start < :cutoff
+                GROUP BY DATE(h.bucket_start), h.subject_id, h.difficulty
+                ON DUPLICATE KEY UPDATE
+                    attempts = attempts + VALUES(attempts),
+                    answers = answers + VALUES(answers),
+                    correct_answers = correct_answers + VALUES(correct_answers),
+                    skipped_answers = skipped_answers + VALUES(skipped_answers),
+                    response_time_ms_sum = response_time_ms_sum + VALUES(response_time_ms_sum),
+                    response_time_count = response_time_count + VALUES(response_time_count)
+            """, nativeQuery = true)
+    int rollHoursIntoDays(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM AnalyticsBucket b WHERE b.granularity = :granularity AND b.bucketStart < :cutoff")
+    int deleteOlderThan(@Param("granularity") BucketGranularity granularity,
+            @Param("cutoff") LocalDateTime cutoff);
+
+    // Chart source; a null subjectId / difficulty means all of them
+    @Query("""
+                SELECT b FROM AnalyticsBucket b
+                WHERE b.granularity = :granularity
+                  AND b.bucketStart >= :from AND b.bucketStart < :to
+                  AND (:subjectId IS NULL OR b.subjectId = :subjectId)
+                  AND (:difficulty IS NULL OR b.difficulty = :difficulty)
+                ORDER BY b.bucketStart
+            """)
+    List<AnalyticsBucket> findRange(@Param("granularity") BucketGranularity granularity,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("subjectId") Long subjectId,
+            @Param("difficulty") com.quiz.AdaptiveQuiz.entity.Difficulty difficulty);
+}
@@ -0,0 +1,34 @@
+package com.quiz.AdaptiveQuiz.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.quiz.AdaptiveQuiz.entity.Difficulty;
+import com.quiz.AdaptiveQuiz.entity.DifficultyStats;
+
+public interface DifficultyStatsRepository extends JpaRepository<DifficultyStats, Difficulty> {
+
+    @Modifying
+    @Query("""
+                UPDATE DifficultyStats d
+                SET d.correctCount = d.correctCount + :correctDelta,
+                    d.wrongCount = d.wrongCount + :wrongDelta
+                WHERE d.difficulty = :difficulty
+            """)
+    int applyDelta(@Param("difficulty") Difficulty difficulty,
+            @Param("correctDelta") long correctDelta,
+            @Param("wrongDelta") long wrongDelta);
+
+    // Drift correction in one statement; rows for every difficulty exist (see AnalyticsRollupService.ensureRows)
+    @Modifying
+    @Query(value = """
+                UPDATE difficulty_stats d
+                LEFT JOIN (SELECT difficulty, SUM(is_correct) AS c, SUM(NOT is_correct) AS w
+                           FROM user_response GROUP BY difficulty) t ON t.difficulty = d.difficulty
+                SET d.correct_count = COALESCE(t.c, 0),
+                    d.wrong_count = COALESCE(t.w, 0)
+            """, nativeQuery = true)
+    int reconcileAll();
+}
@@ -0,0 +1,66 @@
+package com.quiz.AdaptiveQuiz.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.quiz.AdaptiveQuiz.entity.EmailOutbox;
+import com.quiz.AdaptiveQuiz.entity.EmailOutboxStatus;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    @Query("""
+                SELECT e FROM EmailOutbox e
+                WHERE e.status = com.quiz.AdaptiveQuiz.entity.EmailOutboxStatus.PENDING
+                  AND e.nextAttemptAt <= :now
+                ORDER BY e.nextAttemptAt, e.id
+            """)
+    List<EmailOutbox> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Claims a due row by pushing its next attempt past the lease. Only one
+    // dispatcher (on any node) can win, and a crashed sender's row becomes due
+    // again once the lease runs out.
+    @Transactional
+    @Modifying
+    @Query("""
+                UPDATE EmailOutbox e SET e.nextAttemptAt = :leaseUntil
+                WHERE e.id = :id
+                  AND e.status = com.quiz.AdaptiveQuiz.entity.EmailOutboxStatus.PENDING
+                  AND e.nextAttemptAt <= :now
+            """)
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("""
+                UPDATE EmailOutbox e
+                SET e.status = com.quiz.AdaptiveQuiz.entity.EmailOutboxStatus.SENT,
+                    e.attempts = e.attempts + 1, e.sentAt = :now, e.lastError = NULL
+                WHERE e.id IN :ids
+            """)
+    int markSent(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("""
+                UPDATE EmailOutbox e
+                SET e.status = :status, e.attempts = e.attempts + 1,
+                    e.nextAttemptAt = :nextAttemptAt, e.lastError = :error
+                WHERE e.id = :id
+            """)
+    int markAttemptFailed(@Param("id") Long id,
+            @Param("status") EmailOutboxStatus status,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.status = com.quiz.AdaptiveQuiz.entity.EmailOutboxStatus.SENT AND e.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+}
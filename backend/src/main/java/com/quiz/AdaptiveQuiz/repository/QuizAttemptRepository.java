@@ -19,28 +19,37 @@ public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, Long>
 
     // ================= ADMIN ANALYTICS =================
 
-    // System average accuracy
-    @Query("SELECT AVG(q.accuracy) FROM QuizAttempt q")
-    Double getSystemAverageAccuracy();
-
-    // Subject-wise analytics
-    @Query("SELECT q.subject, AVG(q.accuracy), COUNT(q) FROM QuizAttempt q GROUP BY q.subject")
-    List<Object[]> subjectAnalytics();
-
-    // User-wise analytics
-    @Query("SELECT q.user, AVG(q.accuracy), COUNT(q) FROM QuizAttempt q GROUP BY q.user")
-    List<Object[]> userAnalytics();
-
-    // Weekly leaderboard
+    // Weekly leaderboard rebuild source: [userId, name, accuracySum, count]
     @Query("""
-                SELECT q.user, AVG(q.accuracy)
+                SELECT q.user.id, q.user.name, COALESCE(SUM(q.accuracy), 0), COUNT(q)
                 FROM QuizAttempt q
                 WHERE q.startTime >= :weekStart
-                GROUP BY q.user
-                ORDER BY AVG(q.accuracy) DESC
+                GROUP BY q.user.id, q.user.name
             """)
-    List<Object[]> findWeeklyLeaderboard(@Param("weekStart") LocalDateTime weekStart);
+    List<Object[]> weeklyTotals(@Param("weekStart") LocalDateTime weekStart);
+
+    // [attemptId, accuracy] of the given attempts that exist
+    @Query("SELECT q.attemptId, q.accuracy FROM QuizAttempt q WHERE q.attemptId IN :ids")
+    List<Object[]> findAccuracies(@Param("ids") java.util.Collection<Long> ids);
 
     long countByUserId(Long userId);
 
+    // Claims the finish of an attempt: 1 for the caller that ended it, 0 if it already was
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Modifying
+    @Query("UPDATE QuizAttempt q SET q.endTime = :endTime WHERE q.attemptId = :id AND q.endTime IS NULL")
+    int markEnded(@Param("id") Long id, @Param("endTime") LocalDateTime endTime);
+
+    // Submits take the row lock up front so they serialize with a concurrent finish
+    @org.springframework.data.jpa.repository.Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT q FROM QuizAttempt q WHERE q.attemptId = :id")
+    java.util.Optional<QuizAttempt> findByIdForUpdate(@Param("id") Long id);
+
+    // One element (null while running) if the attempt exists, none otherwise
+    @Query("SELECT q.endTime FROM QuizAttempt q WHERE q.attemptId = :id")
+    List<LocalDateTime> findEndTime(@Param("id") Long id);
+
+    @Query("SELECT q.startTime FROM QuizAttempt q WHERE q.attemptId = :id")
+    java.util.Optional<LocalDateTime> findStartTime(@Param("id") Long id);
+
 }
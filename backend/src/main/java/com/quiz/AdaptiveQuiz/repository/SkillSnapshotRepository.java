@@ -12,8 +12,6 @@ import com.quiz.AdaptiveQuiz.entity.User;
 @Repository
 public interface SkillSnapshotRepository extends JpaRepository<SkillSnapshot, Long> {
 
-    List<SkillSnapshot> findByUserAndSubjectOrderByTimestampAsc(User user, Subject subject);
-
     List<SkillSnapshot> findByUser_Email(String email);
 
     List<SkillSnapshot> findBySubject(Subject subject);
@@ -0,0 +1,57 @@
+package com.quiz.AdaptiveQuiz.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.quiz.AdaptiveQuiz.dto.SubjectStatsDTO;
+import com.quiz.AdaptiveQuiz.entity.SubjectStats;
+
+public interface SubjectStatsRepository extends JpaRepository<SubjectStats, Long> {
+
+    @Modifying
+    @Query("""
+                UPDATE SubjectStats s
+                SET s.attemptCount = s.attemptCount + :countDelta,
+                    s.accuracySum = s.accuracySum + :accuracyDelta
+                WHERE s.subjectId = :subjectId
+            """)
+    int applyDelta(@Param("subjectId") Long subjectId,
+            @Param("countDelta") long countDelta,
+            @Param("accuracyDelta") double accuracyDelta);
+
+    @Query("""
+                SELECT new com.quiz.AdaptiveQuiz.dto.SubjectStatsDTO(sub.id, sub.name, s.accuracySum / s.attemptCount, s.attemptCount)
+                FROM SubjectStats s JOIN Subject sub ON sub.id = s.subjectId
+                WHERE s.attemptCount > 0
+                ORDER BY sub.name
+            """)
+    List<SubjectStatsDTO> findSubjectAnalytics();
+
+    // Totals across subjects: [attemptCount, accuracySum]
+    @Query("SELECT COALESCE(SUM(s.attemptCount), 0), COALESCE(SUM(s.accuracySum), 0) FROM SubjectStats s")
+    List<Object[]> systemTotals();
+
+    // Zero rows for subjects that have none yet; reconcileAll fills them in
+    @Modifying
+    @Query(value = """
+                INSERT INTO subject_stats (subject_id, attempt_count, accuracy_sum)
+                SELECT sub.id, 0, 0 FROM subjects sub
+                WHERE NOT EXISTS (SELECT 1 FROM subject_stats s WHERE s.subject_id = sub.id)
+            """, nativeQuery = true)
+    int backfillMissing();
+
+    // Drift correction in one statement, so no delta can land between the read and the write
+    @Modifying
+    @Query(value = """
+                UPDATE subject_stats s
+                LEFT JOIN (SELECT subject_id, COUNT(*) AS c, SUM(accuracy) AS a
+                           FROM quiz_attempt GROUP BY subject_id) t ON t.subject_id = s.subject_id
+                SET s.attempt_count = COALESCE(t.c, 0),
+                    s.accuracy_sum = COALESCE(t.a, 0)
+            """, nativeQuery = true)
+    int reconcileAll();
+}
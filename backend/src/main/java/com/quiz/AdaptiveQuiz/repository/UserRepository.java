@@ -2,8 +2,14 @@ package com.quiz.AdaptiveQuiz.repository;
 
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.quiz.AdaptiveQuiz.dto.AdminUserDTO;
+import com.quiz.AdaptiveQuiz.dto.LoginCredentialsDTO;
 import com.quiz.AdaptiveQuiz.entity.User;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -12,6 +18,72 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
 
-    @org.springframework.data.jpa.repository.Query("SELECT u, COALESCE(AVG(q.accuracy), 0.0), COUNT(q) FROM User u LEFT JOIN QuizAttempt q ON q.user = u GROUP BY u")
-    java.util.List<Object[]> findAllWithStats();
+    // ================= AUTH (NARROW READS / WRITES) =================
+    // Login touches only these columns, never the whole row
+
+    @org.springframework.data.jpa.repository.Query("""
+                SELECT new com.quiz.AdaptiveQuiz.dto.LoginCredentialsDTO(u.id, u.email, u.password, u.role, u.verified)
+                FROM User u WHERE u.email = :email
+            """)
+    Optional<LoginCredentialsDTO> findCredentialsByEmail(@Param("email") String email);
+
+    @Transactional
+    @Modifying
+    @org.springframework.data.jpa.repository.Query("UPDATE User u SET u.sessionVersion = u.sessionVersion + 1 WHERE u.id = :id")
+    int incrementSessionVersion(@Param("id") Long id);
+
+    // Existing user signing in with Google: mark verified and rotate the session in one statement
+    @Transactional
+    @Modifying
+    @org.springframework.data.jpa.repository.Query("""
+                UPDATE User u SET u.provider = 'GOOGLE', u.verified = true, u.sessionVersion = u.sessionVersion + 1
+                WHERE u.id = :id
+            """)
+    int updateOAuthLogin(@Param("id") Long id);
+
+    @org.springframework.data.jpa.repository.Query("SELECT u.sessionVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findSessionVersion(@Param("id") Long id);
+
+    // Startup / refresh source for the in-memory version map: [id, sessionVersion]
+    @org.springframework.data.jpa.repository.Query("SELECT u.id, u.sessionVersion FROM User u WHERE u.sessionVersion > 0")
+    java.util.List<Object[]> findSessionVersions();
+
+    // ================= ADMIN LISTING (KEYSET) =================
+    // Stats come from the precomputed user_stats table; Pageable only carries the limit.
+
+    @org.springframework.data.jpa.repository.Query("""
+                SELECT new com.quiz.AdaptiveQuiz.dto.AdminUserDTO(u.id, u.name, u.email, u.role, u.provider, u.verified,
+                        COALESCE(s.avgAccuracy, 0.0), COALESCE(s.attemptCount, 0))
+                FROM User u LEFT JOIN UserStats s ON s.userId = u.id
+                WHERE u.id > :afterId
+                  AND (:role IS NULL OR u.role = :role)
+                  AND (:provider IS NULL OR u.provider = :provider)
+                  AND (:verified IS NULL OR u.verified = :verified)
+                ORDER BY u.id ASC
+            """)
+    java.util.List<AdminUserDTO> findPageById(
+            @Param("afterId") Long afterId,
+            @Param("role") String role,
+            @Param("provider") String provider,
+            @Param("verified") Boolean verified,
+            Pageable limit);
+
+    @org.springframework.data.jpa.repository.Query("""
+                SELECT new com.quiz.AdaptiveQuiz.dto.AdminUserDTO(u.id, u.name, u.email, u.role, u.provider, u.verified,
+                        s.avgAccuracy, s.attemptCount)
+                FROM UserStats s JOIN User u ON u.id = s.userId
+                WHERE (s.avgAccuracy < :afterAccuracy
+                        OR (s.avgAccuracy = :afterAccuracy AND s.userId < :afterId))
+                  AND (:role IS NULL OR u.role = :role)
+                  AND (:provider IS NULL OR u.provider = :provider)
+                  AND (:verified IS NULL OR u.verified = :verified)
+                ORDER BY s.avgAccuracy DESC, s.userId DESC
+            """)
+    java.util.List<AdminUserDTO> findPageByAccuracy(
+            @Param("afterAccuracy") Double afterAccuracy,
+            @Param("afterId") Long afterId,
+            @Param("role") String role,
+            @Param("provider") String provider,
+            @Param("verified") Boolean verified,
+            Pageable limit);
 }
@@ -12,15 +12,17 @@ public interface UserResponseRepository
 
     List<UserResponse> findByAttempt(QuizAttempt attempt);
 
+    // Review screen: flat projection, never touches attempt -> user
+    @org.springframework.data.jpa.repository.Query("SELECT new com.quiz.AdaptiveQuiz.dto.ReviewDTO(u.questionText, u.selectedAnswer, u.correctAnswer, u.correct, u.difficulty) FROM UserResponse u WHERE u.attempt.attemptId = :attemptId ORDER BY u.id")
+    List<com.quiz.AdaptiveQuiz.dto.ReviewDTO> findReviewByAttemptId(
+            @org.springframework.data.repository.query.Param("attemptId") Long attemptId);
+
     UserResponse findTopByAttemptOrderByIdDesc(QuizAttempt attempt);
 
     long countByAttempt_User_IdAndCorrectTrue(Long userId);
 
     long countByAttempt_User_IdAndCorrectFalse(Long userId);
 
-    @org.springframework.data.jpa.repository.Query("SELECT u.difficulty, u.correct, COUNT(u) FROM UserResponse u GROUP BY u.difficulty, u.correct")
-    List<Object[]> findDifficultyDistribution();
-
     @org.springframework.data.jpa.repository.Query("SELECT DISTINCT u.questionText FROM UserResponse u WHERE u.attempt.user.id = :userId AND u.attempt.subject.id = :subjectId")
     List<String> findDistinctQuestionTextByUserAndSubject(Long userId, Long subjectId);
 }
@@ -0,0 +1,55 @@
+package com.quiz.AdaptiveQuiz.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.quiz.AdaptiveQuiz.entity.UserStats;
+
+public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
+
+    // NOTE: MySQL applies single-table SET assignments left to right, so the
+    // average must be computed before count/sum are overwritten.
+    @Modifying
+    @Query("""
+                UPDATE UserStats s
+                SET s.avgAccuracy = CASE WHEN s.attemptCount + :countDelta > 0
+                        THEN (s.accuracySum + :accuracyDelta) / (s.attemptCount + :countDelta)
+                        ELSE 0 END,
+                    s.attemptCount = s.attemptCount + :countDelta,
+                    s.accuracySum = s.accuracySum + :accuracyDelta
+                WHERE s.userId = :userId
+            """)
+    int applyDelta(@Param("userId") Long userId,
+            @Param("countDelta") long countDelta,
+            @Param("accuracyDelta") double accuracyDelta);
+
+    // One set-based statement that creates rows for users that have none yet
+    @Modifying
+    @Query(value = """
+                INSERT INTO user_stats (user_id, attempt_count, accuracy_sum, avg_accuracy)
+                SELECT u.id, COUNT(q.attempt_id), COALESCE(SUM(q.accuracy), 0), COALESCE(AVG(q.accuracy), 0)
+                FROM users u
+                LEFT JOIN quiz_attempt q ON q.user_id = u.id
+                WHERE NOT EXISTS (SELECT 1 FROM user_stats s WHERE s.user_id = u.id)
+                GROUP BY u.id
+            """, nativeQuery = true)
+    int backfillMissing();
+
+    // Drift correction: overwrite every row with the true totals from quiz_attempt
+    @Modifying
+    @Query(value = """
+                UPDATE user_stats s
+                LEFT JOIN (SELECT user_id, COUNT(*) AS c, SUM(accuracy) AS a
+                           FROM quiz_attempt GROUP BY user_id) t ON t.user_id = s.user_id
+                SET s.attempt_count = COALESCE(t.c, 0),
+                    s.accuracy_sum = COALESCE(t.a, 0),
+                    s.avg_accuracy = COALESCE(t.a / t.c, 0)
+            """, nativeQuery = true)
+    int reconcileAll();
+
+    @Modifying
+    @Query(value = "DELETE FROM user_stats WHERE user_id NOT IN (SELECT id FROM users)", nativeQuery = true)
+    int deleteOrphans();
+}
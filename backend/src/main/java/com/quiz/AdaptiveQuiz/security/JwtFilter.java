@@ -18,12 +18,12 @@ import jakarta.servlet.http.HttpServletResponse;
 public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    // We need to check DB for session ID
-    private final com.quiz.AdaptiveQuiz.repository.UserRepository userRepo;
+    // Session check is in memory; no DB read per request
+    private final com.quiz.AdaptiveQuiz.service.SessionVersionService sessionVersions;
 
-    public JwtFilter(JwtUtil jwtUtil, com.quiz.AdaptiveQuiz.repository.UserRepository userRepo) {
+    public JwtFilter(JwtUtil jwtUtil, com.quiz.AdaptiveQuiz.service.SessionVersionService sessionVersions) {
         this.jwtUtil = jwtUtil;
-        this.userRepo = userRepo;
+        this.sessionVersions = sessionVersions;
     }
 
     @Override
@@ -34,19 +34,27 @@ public class JwtFilter extends OncePerRequestFilter {
 
         String header = request.getHeader("Authorization");
 
+        // Browser EventSource cannot set headers; only the quiz timer stream takes a query token
+        if (header == null && request.getRequestURI().startsWith("/api/quiz/events/")
+                && request.getParameter("access_token") != null) {
+            header = "Bearer " + request.getParameter("access_token");
+        }
+
         if (header != null && header.startsWith("Bearer ")) {
             String token = header.substring(7);
 
             try {
-                if (jwtUtil.isTokenValid(token)) {
+                io.jsonwebtoken.Claims claims = jwtUtil.parseClaims(token);
 
-                    String email = jwtUtil.extractEmail(token);
-                    String sessionId = jwtUtil.extractSessionId(token);
+                if (claims != null) {
 
-                    // Fetch user and validate session
-                    com.quiz.AdaptiveQuiz.entity.User user = userRepo.findByEmail(email).orElse(null);
+                    String email = claims.getSubject();
+                    Long userId = claims.get("uid", Long.class);
+                    Integer sessionVersion = claims.get("sv", Integer.class);
 
-                    if (user != null && sessionId != null && sessionId.equals(user.getSessionId())) {
+                    // Validate session: only the newest login's token is accepted
+                    if (userId != null && sessionVersion != null
+                            && sessionVersions.isCurrent(userId, sessionVersion)) {
                         UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
                                 email,
                                 null,
@@ -60,9 +68,8 @@ public class JwtFilter extends OncePerRequestFilter {
                                 .getContext()
                                 .setAuthentication(auth);
                     } else {
-                        // Session invalid or user not found
-                        System.out.println("Session Invalid: Token=" + sessionId + " DB="
-                                + (user != null ? user.getSessionId() : "null"));
+                        // Superseded by a newer login, account deleted, or pre-versioning token
+                        System.out.println("Session Invalid: user=" + userId + " version=" + sessionVersion);
                     }
                 }
             } catch (Exception e) {
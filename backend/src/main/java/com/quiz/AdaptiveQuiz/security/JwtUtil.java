@@ -6,6 +6,8 @@ import java.util.Date;
 
 import org.springframework.stereotype.Component;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
@@ -18,10 +20,16 @@ public class JwtUtil {
 
         private final Key key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
 
-        public String generateToken(String email, String sessionId) {
+        // Thread-safe; built once instead of per call
+        private final JwtParser parser = Jwts.parserBuilder()
+                        .setSigningKey(key)
+                        .build();
+
+        public String generateToken(String email, Long userId, int sessionVersion) {
                 return Jwts.builder()
                                 .setSubject(email)
-                                .claim("sessionId", sessionId)
+                                .claim("uid", userId)
+                                .claim("sv", sessionVersion)
                                 .setIssuedAt(new Date())
                                 .setExpiration(
                                                 new Date(System.currentTimeMillis() + EXPIRATION))
@@ -29,34 +37,23 @@ public class JwtUtil {
                                 .compact();
         }
 
-        public boolean isTokenValid(String token) {
+        // Verifies signature and expiry once; null if the token is invalid
+        public Claims parseClaims(String token) {
                 try {
-                        Jwts.parserBuilder()
-                                        .setSigningKey(key)
-                                        .build()
-                                        .parseClaimsJws(token);
-                        return true;
+                        return parser.parseClaimsJws(token).getBody();
                 } catch (Exception e) {
                         System.out.println("JWT INVALID: " + e.getMessage());
-                        return false;
+                        return null;
                 }
         }
 
-        public String extractEmail(String token) {
-                return Jwts.parserBuilder()
-                                .setSigningKey(key)
-                                .build()
-                                .parseClaimsJws(token)
-                                .getBody()
-                                .getSubject();
+        public boolean isTokenValid(String token) {
+                return parseClaims(token) != null;
         }
 
-        public String extractSessionId(String token) {
-                return Jwts.parserBuilder()
-                                .setSigningKey(key)
-                                .build()
-                                .parseClaimsJws(token)
+        public String extractEmail(String token) {
+                return parser.parseClaimsJws(token)
                                 .getBody()
-                                .get("sessionId", String.class);
+                                .getSubject();
         }
 }
@@ -7,7 +7,7 @@ import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.stereotype.Component;
 
-import com.quiz.AdaptiveQuiz.entity.User;
+import com.quiz.AdaptiveQuiz.dto.AuthUserDTO;
 import com.quiz.AdaptiveQuiz.service.UserService;
 
 import jakarta.servlet.ServletException;
@@ -41,10 +41,10 @@ public class OAuth2LoginSuccessHandler implements AuthenticationSuccessHandler {
         String name = oauthUser.getAttribute("name");
 
         // Process user (register/update)
-        User user = userService.processOAuthPostLogin(email, name);
+        AuthUserDTO user = userService.processOAuthPostLogin(email, name);
 
         // Generate JWT
-        String token = jwtUtil.generateToken(user.getEmail(), user.getSessionId());
+        String token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getSessionVersion());
 
         // Redirect to configurable frontend URL with token
         String redirectUrl = frontendUrl + "/auth/callback?token=" + token;
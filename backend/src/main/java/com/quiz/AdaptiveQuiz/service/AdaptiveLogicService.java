@@ -1,76 +1,370 @@
 package com.quiz.AdaptiveQuiz.service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.LongPredicate;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.quiz.AdaptiveQuiz.config.QuestionBankCli;
 import com.quiz.AdaptiveQuiz.entity.Difficulty;
 import com.quiz.AdaptiveQuiz.entity.SkillSnapshot;
 import com.quiz.AdaptiveQuiz.entity.User;
 import com.quiz.AdaptiveQuiz.repository.SkillSnapshotRepository;
+import com.quiz.AdaptiveQuiz.util.ContentHash;
+import com.quiz.AdaptiveQuiz.util.LongIntHashMap;
 
+import jakarta.annotation.PreDestroy;
+
+// Online Elo rating (the logistic 1PL IRT model on a 400-point scale) of every
+// user per subject and of every question. Each answer moves both ratings by
+// K * (actual - expected), in memory and in O(1); the next difficulty is the one
+// whose rating is closest to the user's, i.e. a ~50% chance of answering it.
+//
+// Ratings live in primitive maps. Changes are checkpointed to skill_ratings /
+// question_ratings every few seconds as deltas (rating = rating + delta), so
+// nodes updating the same rows never overwrite each other. A user's rating is
+// read once when an attempt starts; question ratings are loaded at startup.
+// An answer's moves only land in the maps once its submit has committed.
 @Service
+@Profile("!" + QuestionBankCli.PROFILE)
 public class AdaptiveLogicService {
 
+    public static final int DEFAULT_RATING = 1500;
+    private static final int MIN_RATING = 600;
+    private static final int MAX_RATING = 2400;
+
     private final SkillSnapshotRepository skillSnapshotRepository;
+    private final JdbcTemplate jdbc;
+
+    // (userId << 32 | subjectId) -> rating / answers counted
+    private final LongIntHashMap userRatings = new LongIntHashMap(1024);
+    private final LongIntHashMap userAnswers = new LongIntHashMap(1024);
+    // question key (see questionKey) -> rating / answers counted
+    private final LongIntHashMap questionRatings = new LongIntHashMap(4096);
+    private final LongIntHashMap questionAnswers = new LongIntHashMap(4096);
+    private final LongIntHashMap questionSubjects = new LongIntHashMap(4096);
+
+    // Not yet checkpointed; swapped out whole by checkpoint()
+    private LongIntHashMap userDelta = new LongIntHashMap();
+    private LongIntHashMap userAnswerDelta = new LongIntHashMap();
+    private LongIntHashMap questionDelta = new LongIntHashMap();
+    private LongIntHashMap questionAnswerDelta = new LongIntHashMap();
+
+    private final Object lock = new Object();
 
-    public AdaptiveLogicService(SkillSnapshotRepository skillSnapshotRepository) {
+    public AdaptiveLogicService(SkillSnapshotRepository skillSnapshotRepository, JdbcTemplate jdbc) {
         this.skillSnapshotRepository = skillSnapshotRepository;
+        this.jdbc = jdbc;
     }
 
     // ==================================
-    // NEXT DIFFICULTY BASED ON ANSWER
+    // RATINGS
     // ==================================
-    public Difficulty nextDifficulty(
-            Difficulty current,
-            boolean isCorrect) {
+    // Attempt start: pick up whatever other nodes checkpointed since we last looked
+    public void loadRating(Long userId, Long subjectId) {
+        long key = userKey(userId, subjectId);
+        List<int[]> rows = jdbc.query(
+                "SELECT rating, answers FROM skill_ratings WHERE user_id = ? AND subject_id = ?",
+                (rs, i) -> new int[] { rs.getInt(1), rs.getInt(2) }, userId, subjectId);
+        synchronized (lock) {
+            int rating = rows.isEmpty() ? DEFAULT_RATING : rows.get(0)[0];
+            int answers = rows.isEmpty() ? 0 : rows.get(0)[1];
+            // Our own unsaved changes are not in the row yet
+            userRatings.put(key, clamp(rating + userDelta.get(key, 0)));
+            userAnswers.put(key, answers + userAnswerDelta.get(key, 0));
+        }
+    }
 
-        if (isCorrect) {
-            if (current == Difficulty.EASY)
-                return Difficulty.MEDIUM;
-            if (current == Difficulty.MEDIUM)
-                return Difficulty.HARD;
-        } else {
-            if (current == Difficulty.HARD)
-                return Difficulty.MEDIUM;
-            if (current == Difficulty.MEDIUM)
-                return Difficulty.EASY;
+    public int rating(Long userId, Long subjectId) {
+        long key = userKey(userId, subjectId);
+        synchronized (lock) {
+            if (userRatings.containsKey(key)) {
+                return userRatings.get(key, DEFAULT_RATING);
+            }
+        }
+        // Attempt started before a restart or on another node
+        loadRating(userId, subjectId);
+        synchronized (lock) {
+            return userRatings.get(key, DEFAULT_RATING);
         }
-        return current;
     }
 
     // ==================================
-    // SAVE SKILL SNAPSHOT (QUIZ END)
+    // ANSWER -> RATING UPDATE + NEXT DIFFICULTY
     // ==================================
-    public void saveSkillSnapshot(
-            User user,
-            com.quiz.AdaptiveQuiz.entity.Subject subject,
-            int correctAnswers,
-            int totalQuestions) {
+    // Skips are not answers and leave both ratings alone. The next level is
+    // returned right away; the rating moves are applied once the caller's
+    // transaction commits, so a rolled-back submit never reaches a checkpoint.
+    public Difficulty recordAnswer(Long userId, Long subjectId, String questionText, Difficulty asked,
+            boolean isCorrect) {
+        long uKey = userKey(userId, subjectId);
+        long qKey = questionKey(subjectId, questionText);
+        int userRating = rating(userId, subjectId);
+        int du;
+        int dq;
+
+        synchronized (lock) {
+            userRating = userRatings.get(uKey, userRating);
+            int questionRating = questionRatings.get(qKey, initialRating(asked));
+            int uAnswers = userAnswers.get(uKey, 0);
+            int qAnswers = questionAnswers.get(qKey, 0);
+
+            double surprise = (isCorrect ? 1.0 : 0.0) - expected(userRating, questionRating);
+            // New users settle fast; a question moves slowly since every user answers it
+            du = (int) Math.round((uAnswers < 30 ? 40 : 20) * surprise);
+            dq = (int) -Math.round((qAnswers < 30 ? 24 : 8) * surprise);
+        }
+
+        int initialQuestion = initialRating(asked);
+        afterCommit(() -> apply(uKey, qKey, subjectId, initialQuestion, du, dq));
+        return difficultyFor(clamp(userRating + du));
+    }
+
+    private void apply(long uKey, long qKey, Long subjectId, int initialQuestion, int du, int dq) {
+        synchronized (lock) {
+            // Gone if the user or subject was deleted meanwhile (forgetUser / forgetSubject)
+            if (userRatings.containsKey(uKey)) {
+                int userRating = userRatings.get(uKey, DEFAULT_RATING);
+                int newUser = clamp(userRating + du);
+                userRatings.put(uKey, newUser);
+                userAnswers.addTo(uKey, 1);
+                userDelta.addTo(uKey, newUser - userRating);
+                userAnswerDelta.addTo(uKey, 1);
+            }
 
-        double accuracy = (double) correctAnswers / totalQuestions;
+            int questionRating = questionRatings.get(qKey, initialQuestion);
+            int newQuestion = clamp(questionRating + dq);
+            questionRatings.put(qKey, newQuestion);
+            questionAnswers.addTo(qKey, 1);
+            questionSubjects.put(qKey, subjectId.intValue());
+            questionDelta.addTo(qKey, newQuestion - questionRating);
+            questionAnswerDelta.addTo(qKey, 1);
+        }
+    }
 
-        // Fetch previous snapshots for THIS subject
-        List<SkillSnapshot> snapshots = skillSnapshotRepository.findByUserAndSubjectOrderByTimestampAsc(user, subject);
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
 
-        int oldSkill = snapshots.isEmpty()
-                ? 50
-                : (int) snapshots.get(snapshots.size() - 1).getSkillScore();
+    public Difficulty difficultyFor(Long userId, Long subjectId) {
+        return difficultyFor(rating(userId, subjectId));
+    }
 
-        // Adaptive formula
-        int newSkill = (int) (oldSkill + (accuracy * 10) - 5);
+    // The level whose starting rating is closest to the ability
+    public Difficulty difficultyFor(int rating) {
+        Difficulty best = Difficulty.MEDIUM;
+        for (Difficulty d : Difficulty.values()) {
+            if (Math.abs(initialRating(d) - rating) < Math.abs(initialRating(best) - rating)) {
+                best = d;
+            }
+        }
+        return best;
+    }
 
-        // Clamp between 0 and 100
-        if (newSkill < 0)
-            newSkill = 0;
-        if (newSkill > 100)
-            newSkill = 100;
+    // ==================================
+    // SAVE SKILL SNAPSHOT (QUIZ END)
+    // ==================================
+    // Score 0-100: the chance, in percent, of answering a MEDIUM question right
+    public void saveSkillSnapshot(User user, com.quiz.AdaptiveQuiz.entity.Subject subject) {
+        int rating = rating(user.getId(), subject.getId());
+        int score = (int) Math.round(100 * expected(rating, initialRating(Difficulty.MEDIUM)));
 
         SkillSnapshot snapshot = new SkillSnapshot();
         snapshot.setUser(user);
         snapshot.setSubject(subject);
-        snapshot.setSkillScore(newSkill);
+        snapshot.setSkillScore(score);
 
         skillSnapshotRepository.save(snapshot);
     }
+
+    // ==================================
+    // CHECKPOINT
+    // ==================================
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadQuestionRatings() {
+        Thread loader = new Thread(() -> {
+            try {
+                int[] loaded = { 0 };
+                jdbc.query("SELECT question_key, subject_id, rating, answers FROM question_ratings", rs -> {
+                    long key = rs.getLong(1);
+                    synchronized (lock) {
+                        questionRatings.put(key, clamp(rs.getInt(3) + questionDelta.get(key, 0)));
+                        questionAnswers.put(key, rs.getInt(4) + questionAnswerDelta.get(key, 0));
+                        questionSubjects.put(key, (int) rs.getLong(2));
+                    }
+                    loaded[0]++;
+                });
+                System.out.println("✅ Loaded " + loaded[0] + " question ratings");
+            } catch (Exception e) {
+                System.err.println("Loading question ratings failed: " + e.getMessage());
+            }
+        }, "question-ratings-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    @Scheduled(fixedDelayString = "${skill.checkpoint-ms:10000}")
+    public void checkpoint() {
+        LongIntHashMap users;
+        LongIntHashMap usersAnswered;
+        LongIntHashMap questions;
+        LongIntHashMap questionsAnswered;
+        List<Object[]> userRows = new ArrayList<>();
+        List<Object[]> questionRows = new ArrayList<>();
+        synchronized (lock) {
+            if (userAnswerDelta.isEmpty() && questionAnswerDelta.isEmpty()) {
+                return;
+            }
+            users = userDelta;
+            usersAnswered = userAnswerDelta;
+            questions = questionDelta;
+            questionsAnswered = questionAnswerDelta;
+            userDelta = new LongIntHashMap();
+            userAnswerDelta = new LongIntHashMap();
+            questionDelta = new LongIntHashMap();
+            questionAnswerDelta = new LongIntHashMap();
+
+            usersAnswered.forEach((key, answered) -> userRows.add(new Object[] {
+                    key >>> 32, key & 0xFFFFFFFFL,
+                    userRatings.get(key, DEFAULT_RATING), userAnswers.get(key, answered),
+                    users.get(key, 0), answered }));
+            questionsAnswered.forEach((key, answered) -> questionRows.add(new Object[] {
+                    key, questionSubjects.get(key, 0),
+                    questionRatings.get(key, DEFAULT_RATING), questionAnswers.get(key, answered),
+                    questions.get(key, 0), answered }));
+        }
+
+        // Insert the full value for a new row, add the delta to an existing one
+        try {
+            jdbc.batchUpdate("""
+                    INSERT INTO skill_ratings (user_id, subject_id, rating, answers, updated_at)
+                    VALUES (?, ?, ?, ?, NOW())
+                    ON DUPLICATE KEY UPDATE rating = LEAST(?, GREATEST(?, rating + ?)),
+                        answers = answers + ?, updated_at = NOW()
+                    """, withBounds(userRows));
+        } catch (Exception e) {
+            // Hand the deltas back so the next checkpoint retries them
+            System.err.println("Skill rating checkpoint failed: " + e.getMessage());
+            synchronized (lock) {
+                users.forEach(userDelta::addTo);
+                usersAnswered.forEach(userAnswerDelta::addTo);
+            }
+        }
+        try {
+            jdbc.batchUpdate("""
+                    INSERT INTO question_ratings (question_key, subject_id, rating, answers, updated_at)
+                    VALUES (?, ?, ?, ?, NOW())
+                    ON DUPLICATE KEY UPDATE rating = LEAST(?, GREATEST(?, rating + ?)),
+                        answers = answers + ?, updated_at = NOW()
+                    """, withBounds(questionRows));
+        } catch (Exception e) {
+            System.err.println("Question rating checkpoint failed: " + e.getMessage());
+            synchronized (lock) {
+                questions.forEach(questionDelta::addTo);
+                questionsAnswered.forEach(questionAnswerDelta::addTo);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+    }
+
+    // ==================================
+    // BULK DELETES
+    // ==================================
+    // Drops the user's ratings and unsaved deltas, so no later checkpoint writes
+    // back the skill_ratings rows the delete job removes
+    public void forgetUser(Long userId) {
+        synchronized (lock) {
+            for (LongIntHashMap map : List.of(userRatings, userAnswers, userDelta, userAnswerDelta)) {
+                removeKeys(map, key -> (key >>> 32) == userId);
+            }
+        }
+    }
+
+    // Same for every user's rating in the subject and for the subject's questions
+    public void forgetSubject(Long subjectId) {
+        synchronized (lock) {
+            for (LongIntHashMap map : List.of(userRatings, userAnswers, userDelta, userAnswerDelta)) {
+                removeKeys(map, key -> (key & 0xFFFFFFFFL) == subjectId);
+            }
+            LongPredicate inSubject = key -> questionSubjects.get(key, 0) == subjectId;
+            for (LongIntHashMap map : List.of(questionRatings, questionAnswers, questionDelta, questionAnswerDelta)) {
+                removeKeys(map, inSubject);
+            }
+            removeKeys(questionSubjects, inSubject);
+        }
+    }
+
+    private static void removeKeys(LongIntHashMap map, LongPredicate matches) {
+        List<Long> keys = new ArrayList<>();
+        map.forEach((key, value) -> {
+            if (matches.test(key)) {
+                keys.add(key);
+            }
+        });
+        keys.forEach(map::remove);
+    }
+
+    // [a, b, rating, answers, delta, answered] -> [a, b, rating, answers, MAX, MIN, delta, answered]
+    private static List<Object[]> withBounds(List<Object[]> rows) {
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (Object[] r : rows) {
+            args.add(new Object[] { r[0], r[1], r[2], r[3], MAX_RATING, MIN_RATING, r[4], r[5] });
+        }
+        return args;
+    }
+
+    // ==================================
+    // MODEL
+    // ==================================
+    // Chance that a player rated `rating` answers a question rated `against` correctly
+    static double expected(int rating, int against) {
+        return 1.0 / (1.0 + Math.pow(10, (against - rating) / 400.0));
+    }
+
+    static int initialRating(Difficulty difficulty) {
+        return switch (difficulty) {
+            case EASY -> 1300;
+            case MEDIUM -> DEFAULT_RATING;
+            case HARD -> 1700;
+        };
+    }
+
+    private static int clamp(int rating) {
+        return Math.max(MIN_RATING, Math.min(MAX_RATING, rating));
+    }
+
+    private static long userKey(Long userId, Long subjectId) {
+        return (userId << 32) | (subjectId & 0xFFFFFFFFL);
+    }
+
+    // Same text in the same subject is the same question, whether it came from the
+    // bank or the generator: the first 64 bits of its content hash
+    static long questionKey(Long subjectId, String questionText) {
+        return questionKey(ContentHash.of(subjectId, questionText));
+    }
+
+    static long questionKey(String contentHash) {
+        return Long.parseUnsignedLong(contentHash.substring(0, 16), 16);
+    }
 }
@@ -2,64 +2,101 @@ package com.quiz.AdaptiveQuiz.service;
 
 import java.util.List;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
-import com.quiz.AdaptiveQuiz.repository.QuizAttemptRepository;
 import com.quiz.AdaptiveQuiz.repository.UserRepository;
-import com.quiz.AdaptiveQuiz.entity.User;
+import com.quiz.AdaptiveQuiz.dto.AdminUserDTO;
+import com.quiz.AdaptiveQuiz.dto.AdminUserPageDTO;
+import com.quiz.AdaptiveQuiz.dto.DifficultyStatsDTO;
+import com.quiz.AdaptiveQuiz.dto.SubjectStatsDTO;
 import java.nio.charset.StandardCharsets;
 
 @Service
 public class AdminAnalyticsService {
 
     private final UserRepository userRepo;
-    private final QuizAttemptRepository repo;
-    private final com.quiz.AdaptiveQuiz.repository.UserResponseRepository responseRepo;
+    private final AnalyticsRollupService rollupService;
 
     public AdminAnalyticsService(UserRepository userRepo,
-            QuizAttemptRepository repo,
-            com.quiz.AdaptiveQuiz.repository.UserResponseRepository responseRepo) {
+            AnalyticsRollupService rollupService) {
         this.userRepo = userRepo;
-        this.repo = repo;
-        this.responseRepo = responseRepo;
+        this.rollupService = rollupService;
     }
 
     public Double getSystemStats() {
-        return repo.getSystemAverageAccuracy();
+        return rollupService.getSystemAverageAccuracy();
     }
 
-    public List<Object[]> getSubjectAnalytics() {
-        return repo.subjectAnalytics();
+    public List<SubjectStatsDTO> getSubjectAnalytics() {
+        return rollupService.getSubjectAnalytics();
     }
 
-    public List<Object[]> getUserAnalytics() {
-        return repo.userAnalytics();
+    // ================= USER LISTING (KEYSET PAGED) =================
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int EXPORT_CHUNK = 1000;
+
+    public AdminUserPageDTO listUsers(String sort, Long afterId, Double afterAccuracy, int limit,
+            String role, String provider, Boolean verified) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Ask for one extra row to know whether another page exists
+        Pageable window = PageRequest.of(0, size + 1);
+
+        List<AdminUserDTO> rows;
+        if ("accuracy".equalsIgnoreCase(sort)) {
+            rows = userRepo.findPageByAccuracy(
+                    afterAccuracy != null ? afterAccuracy : Double.MAX_VALUE,
+                    afterId != null ? afterId : Long.MAX_VALUE,
+                    role, provider, verified, window);
+        } else {
+            rows = userRepo.findPageById(afterId != null ? afterId : 0L, role, provider, verified, window);
+        }
+
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows = rows.subList(0, size);
+        }
+        AdminUserDTO last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+
+        return new AdminUserPageDTO(
+                rows,
+                hasMore,
+                last != null ? last.getId() : null,
+                last != null ? last.getAvgAccuracy() : null);
     }
 
-    public List<Object[]> getDifficultyDistribution() {
-        return responseRepo.findDifficultyDistribution();
+    public List<DifficultyStatsDTO> getDifficultyDistribution() {
+        return rollupService.getDifficultyDistribution();
     }
 
     public byte[] generateUserReportCsv() {
-        List<Object[]> users = userRepo.findAllWithStats();
         StringBuilder csv = new StringBuilder();
         csv.append("User ID,Name,Email,Role,Avg Accuracy,Total Quizzes\n");
 
-        for (Object[] row : users) {
-            User u = (User) row[0];
-            Double accuracy = (Double) row[1];
-            Long count = (Long) row[2];
-
-            csv.append(u.getId()).append(",")
-                    .append(escapeCsv(u.getName())).append(",")
-                    .append(escapeCsv(u.getEmail())).append(",")
-                    .append(u.getRole()).append(",")
-                    .append(String.format("%.2f", accuracy)).append("%").append(",")
-                    .append(count).append("\n");
-        }
+        // Walk the table in id order one chunk at a time instead of one giant GROUP BY
+        long afterId = 0L;
+        List<AdminUserDTO> chunk;
+        do {
+            chunk = userRepo.findPageById(afterId, null, null, null, PageRequest.of(0, EXPORT_CHUNK));
+            for (AdminUserDTO u : chunk) {
+                appendCsvRow(csv, u);
+                afterId = u.getId();
+            }
+        } while (chunk.size() == EXPORT_CHUNK);
+
         return csv.toString().getBytes(StandardCharsets.UTF_8);
     }
 
+    private void appendCsvRow(StringBuilder csv, AdminUserDTO u) {
+        csv.append(u.getId()).append(",")
+                .append(escapeCsv(u.getName())).append(",")
+                .append(escapeCsv(u.getEmail())).append(",")
+                .append(u.getRole()).append(",")
+                .append(String.format("%.2f", u.getAvgAccuracy())).append("%").append(",")
+                .append(u.getTotalQuizzes()).append("\n");
+    }
+
     private String escapeCsv(String data) {
         if (data == null)
             return "";
@@ -1,52 +1,53 @@
 package com.quiz.AdaptiveQuiz.service;
 
-import java.time.LocalDateTime;
-import java.time.temporal.WeekFields;
 import java.util.List;
-import java.util.Locale;
 
 import org.springframework.stereotype.Service;
 
-import com.quiz.AdaptiveQuiz.repository.QuizAttemptRepository;
+import com.quiz.AdaptiveQuiz.dto.AdminUserPageDTO;
+import com.quiz.AdaptiveQuiz.dto.SubjectStatsDTO;
+import com.quiz.AdaptiveQuiz.dto.WeeklyLeaderboardDTO;
 
 @Service
 public class AdminService {
 
-    private final QuizAttemptRepository attemptRepo;
+    private final AnalyticsRollupService rollupService;
+    private final AdminAnalyticsService analyticsService;
+    private final WeeklyLeaderboardService weeklyLeaderboard;
 
-    public AdminService(QuizAttemptRepository attemptRepo) {
-        this.attemptRepo = attemptRepo;
+    public AdminService(AnalyticsRollupService rollupService,
+            AdminAnalyticsService analyticsService,
+            WeeklyLeaderboardService weeklyLeaderboard) {
+        this.rollupService = rollupService;
+        this.analyticsService = analyticsService;
+        this.weeklyLeaderboard = weeklyLeaderboard;
     }
 
     // =========================
     // SYSTEM AVERAGE ACCURACY
     // =========================
     public Double getSystemAverageAccuracy() {
-        return attemptRepo.getSystemAverageAccuracy();
+        return rollupService.getSystemAverageAccuracy();
     }
 
     // =========================
     // SUBJECT-WISE ANALYTICS
     // =========================
-    public List<Object[]> getSubjectAnalytics() {
-        return attemptRepo.subjectAnalytics();
+    public List<SubjectStatsDTO> getSubjectAnalytics() {
+        return rollupService.getSubjectAnalytics();
     }
 
     // =========================
     // USER-WISE ANALYTICS
     // =========================
-    public List<Object[]> getUserAnalytics() {
-        return attemptRepo.userAnalytics();
+    public AdminUserPageDTO getUserAnalytics() {
+        return analyticsService.listUsers("accuracy", null, null, 50, null, null, null);
     }
 
     // =========================
     // WEEKLY LEADERBOARD
     // =========================
-    public List<Object[]> getWeeklyLeaderboard() {
-
-        LocalDateTime weekStart = LocalDateTime.now()
-                .with(WeekFields.of(Locale.getDefault()).dayOfWeek(), 1);
-
-        return attemptRepo.findWeeklyLeaderboard(weekStart);
+    public List<WeeklyLeaderboardDTO> getWeeklyLeaderboard() {
+        return weeklyLeaderboard.getTop(10);
     }
 }
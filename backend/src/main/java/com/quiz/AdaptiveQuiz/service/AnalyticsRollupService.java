@@ -0,0 +1,172 @@
+package com.quiz.AdaptiveQuiz.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.quiz.AdaptiveQuiz.dto.DifficultyStatsDTO;
+import com.quiz.AdaptiveQuiz.dto.SubjectStatsDTO;
+import com.quiz.AdaptiveQuiz.entity.Difficulty;
+import com.quiz.AdaptiveQuiz.entity.DifficultyStats;
+import com.quiz.AdaptiveQuiz.entity.Subject;
+import com.quiz.AdaptiveQuiz.entity.SubjectStats;
+import com.quiz.AdaptiveQuiz.repository.DifficultyStatsRepository;
+import com.quiz.AdaptiveQuiz.repository.SubjectRepository;
+import com.quiz.AdaptiveQuiz.repository.SubjectStatsRepository;
+
+// Keeps the admin analytics aggregates as running totals so admin pages read
+// O(subjects) rows instead of aggregating quiz_attempt / user_response.
+@Service
+public class AnalyticsRollupService {
+
+    private static final String RECONCILE_JOB = "analytics-reconcile";
+
+    private final SubjectStatsRepository subjectStatsRepo;
+    private final DifficultyStatsRepository difficultyStatsRepo;
+    private final UserStatsService userStatsService;
+    private final SubjectRepository subjectRepo;
+    private final SchedulerLeaseService leases;
+    private final TransactionTemplate tx;
+
+    @Value("${analytics.rollup.lease-seconds:600}")
+    private int leaseSeconds;
+
+    public AnalyticsRollupService(SubjectStatsRepository subjectStatsRepo,
+            DifficultyStatsRepository difficultyStatsRepo,
+            UserStatsService userStatsService,
+            SubjectRepository subjectRepo,
+            SchedulerLeaseService leases,
+            PlatformTransactionManager transactionManager) {
+        this.subjectStatsRepo = subjectStatsRepo;
+        this.difficultyStatsRepo = difficultyStatsRepo;
+        this.userStatsService = userStatsService;
+        this.subjectRepo = subjectRepo;
+        this.leases = leases;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    // =========================
+    // WRITE PATH (called from QuizService)
+    // =========================
+    @Transactional
+    public void recordAttemptStarted(Long userId, Long subjectId) {
+        userStatsService.recordAttemptStarted(userId);
+        applySubject(subjectId, 1, 0);
+    }
+
+    // Only the change in accuracy is applied, so re-scoring an attempt is safe
+    @Transactional
+    public void recordAccuracyChange(Long userId, Long subjectId, double accuracyDelta) {
+        if (accuracyDelta == 0) {
+            return;
+        }
+        userStatsService.recordAccuracyChange(userId, accuracyDelta);
+        applySubject(subjectId, 0, accuracyDelta);
+    }
+
+    // Called per flushed batch of answers (see AnswerLogService), not per click
+    @Transactional
+    public void recordAnswers(Difficulty difficulty, long correct, long wrong) {
+        if (correct == 0 && wrong == 0) {
+            return;
+        }
+        if (difficultyStatsRepo.applyDelta(difficulty, correct, wrong) == 0) {
+            DifficultyStats row = new DifficultyStats(difficulty);
+            row.setCorrectCount(correct);
+            row.setWrongCount(wrong);
+            difficultyStatsRepo.save(row);
+        }
+    }
+
+    @Transactional
+    public void forgetSubject(Long subjectId) {
+        subjectStatsRepo.deleteById(subjectId);
+    }
+
+    private void applySubject(Long subjectId, long countDelta, double accuracyDelta) {
+        if (subjectStatsRepo.applyDelta(subjectId, countDelta, accuracyDelta) == 0) {
+            SubjectStats row = new SubjectStats(subjectId);
+            row.setAttemptCount(Math.max(countDelta, 0));
+            row.setAccuracySum(accuracyDelta);
+            subjectStatsRepo.save(row);
+        }
+    }
+
+    // =========================
+    // READ PATH
+    // =========================
+    // Same contract as AVG(accuracy): null when there are no attempts
+    public Double getSystemAverageAccuracy() {
+        Object[] totals = subjectStatsRepo.systemTotals().get(0);
+        long count = ((Number) totals[0]).longValue();
+        double sum = ((Number) totals[1]).doubleValue();
+        return count == 0 ? null : sum / count;
+    }
+
+    public List<SubjectStatsDTO> getSubjectAnalytics() {
+        return subjectStatsRepo.findSubjectAnalytics();
+    }
+
+    public List<DifficultyStatsDTO> getDifficultyDistribution() {
+        List<DifficultyStatsDTO> result = new ArrayList<>();
+        for (DifficultyStats d : difficultyStatsRepo.findAll()) {
+            result.add(new DifficultyStatsDTO(d.getDifficulty().name(), d.getCorrectCount(), d.getWrongCount()));
+        }
+        return result;
+    }
+
+    // =========================
+    // RECONCILIATION
+    // =========================
+    // Creates the rows the write path expects so hot-path upserts almost never insert
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void ensureRows() {
+        for (Subject s : subjectRepo.findAll()) {
+            if (!subjectStatsRepo.existsById(s.getId())) {
+                subjectStatsRepo.save(new SubjectStats(s.getId()));
+            }
+        }
+        for (Difficulty d : Difficulty.values()) {
+            if (!difficultyStatsRepo.existsById(d)) {
+                difficultyStatsRepo.save(new DifficultyStats(d));
+            }
+        }
+    }
+
+    // Recomputes every rollup from the raw tables to correct any drift
+    // (subject deletes, crashed transactions, manual DB edits). Each table is
+    // rewritten by a single UPDATE ... JOIN, so a delta committed while the job
+    // runs is either already in the totals or applied on top of them. One node
+    // at a time, via scheduler_lease.
+    @Scheduled(fixedDelayString = "${analytics.rollup.reconcile-ms:3600000}",
+            initialDelayString = "${analytics.rollup.reconcile-initial-ms:60000}")
+    public void reconcile() {
+        if (!leases.tryAcquire(RECONCILE_JOB, leaseSeconds)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            tx.executeWithoutResult(status -> {
+                subjectStatsRepo.backfillMissing();
+                subjectStatsRepo.reconcileAll();
+            });
+            tx.executeWithoutResult(status -> difficultyStatsRepo.reconcileAll());
+            userStatsService.reconcile();
+
+            System.out.println("✅ Analytics rollups reconciled in " + (System.currentTimeMillis() - start) + " ms");
+        } catch (Exception e) {
+            System.err.println("Analytics rollup reconciliation failed: " + e.getMessage());
+        } finally {
+            leases.release(RECONCILE_JOB);
+        }
+    }
+}
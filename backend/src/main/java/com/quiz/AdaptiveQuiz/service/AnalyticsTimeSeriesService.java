@@ -0,0 +1,210 @@
+package com.quiz.AdaptiveQuiz.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.quiz.AdaptiveQuiz.dto.TimeSeriesPointDTO;
+import com.quiz.AdaptiveQuiz.entity.AnalyticsBucket;
+import com.quiz.AdaptiveQuiz.entity.BucketGranularity;
+import com.quiz.AdaptiveQuiz.entity.Difficulty;
+import com.quiz.AdaptiveQuiz.repository.AnalyticsBucketRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Hour x subject x difficulty counters for trend charts. Events are summed in
+// memory and flushed as one upsert per touched bucket; hourly rows older than
+// the retention window are compacted into daily rows.
+@Service
+public class AnalyticsTimeSeriesService {
+
+    // Counter slots in the per-bucket long[]
+    private static final int ATTEMPTS = 0;
+    private static final int ANSWERS = 1;
+    private static final int CORRECT = 2;
+    private static final int SKIPPED = 3;
+    private static final int RESPONSE_MS = 4;
+    private static final int RESPONSE_COUNT = 5;
+    private static final int SLOTS = 6;
+
+    private record BucketKey(LocalDateTime hour, Long subjectId, Difficulty difficulty) {
+    }
+
+    private final AnalyticsBucketRepository bucketRepo;
+    private final ConcurrentHashMap<BucketKey, long[]> pending = new ConcurrentHashMap<>();
+
+    @Value("${analytics.timeseries.hourly-retention-days:14}")
+    private int hourlyRetentionDays;
+
+    public AnalyticsTimeSeriesService(AnalyticsBucketRepository bucketRepo) {
+        this.bucketRepo = bucketRepo;
+    }
+
+    // =========================
+    // RECORDING (hot path, memory only)
+    // =========================
+    public void recordAttemptStarted(Long subjectId, Difficulty difficulty) {
+        add(subjectId, difficulty, ATTEMPTS, 1);
+    }
+
+    // Counted once the submit commits, in the hour it was answered
+    public void recordAnswer(Long subjectId, Difficulty difficulty, boolean correct, boolean skipped,
+            long responseTimeMs) {
+        BucketKey key = new BucketKey(currentHour(), subjectId, difficulty);
+        afterCommit(() -> {
+            // compute() is atomic per key, so it cannot interleave with flush's remove()
+            pending.compute(key, (k, c) -> {
+                if (c == null)
+                    c = new long[SLOTS];
+                c[ANSWERS]++;
+                if (correct)
+                    c[CORRECT]++;
+                if (skipped)
+                    c[SKIPPED]++;
+                if (responseTimeMs >= 0) {
+                    c[RESPONSE_MS] += responseTimeMs;
+                    c[RESPONSE_COUNT]++;
+                }
+                return c;
+            });
+        });
+    }
+
+    // A rolled-back submit never reaches the charts
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    private void add(Long subjectId, Difficulty difficulty, int slot, long value) {
+        pending.compute(new BucketKey(currentHour(), subjectId, difficulty), (k, c) -> {
+            if (c == null)
+                c = new long[SLOTS];
+            c[slot] += value;
+            return c;
+        });
+    }
+
+    private LocalDateTime currentHour() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+    }
+
+    // =========================
+    // FLUSH
+    // =========================
+    @Scheduled(fixedDelayString = "${analytics.timeseries.flush-ms:30000}")
+    public void flush() {
+        for (BucketKey key : pending.keySet()) {
+            long[] c = pending.remove(key);
+            if (c == null)
+                continue;
+            try {
+                bucketRepo.addCounts(BucketGranularity.HOUR.name(), key.hour(), key.subjectId(),
+                        key.difficulty().name(), c[ATTEMPTS], c[ANSWERS], c[CORRECT], c[SKIPPED],
+                        c[RESPONSE_MS], c[RESPONSE_COUNT]);
+            } catch (Exception e) {
+                // Put the counts back so the next flush retries them
+                pending.merge(key, c, (a, b) -> {
+                    for (int i = 0; i < SLOTS; i++)
+                        a[i] += b[i];
+                    return a;
+                });
+                System.err.println("Time-series flush failed, will retry: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // =========================
+    // COMPACTION
+    // =========================
+    @Scheduled(cron = "${analytics.timeseries.compact-cron:0 15 3 * * *}")
+    @Transactional
+    public void compact() {
+        LocalDateTime cutoff = LocalDate.now().minusDays(hourlyRetentionDays).atStartOfDay();
+        bucketRepo.rollHoursIntoDays(cutoff);
+        int removed = bucketRepo.deleteOlderThan(BucketGranularity.HOUR, cutoff);
+        if (removed > 0) {
+            System.out.println("✅ Compacted " + removed + " hourly analytics buckets before " + cutoff);
+        }
+    }
+
+    // =========================
+    // QUERY
+    // =========================
+    // DAY series merge compacted DAY rows with not-yet-compacted HOUR rows, so the
+    // result is continuous across the retention boundary.
+    public List<TimeSeriesPointDTO> getSeries(BucketGranularity granularity, LocalDateTime from, LocalDateTime to,
+            Long subjectId, Difficulty difficulty) {
+
+        if (Duration.between(from, to).isNegative()) {
+            throw new RuntimeException("'from' must be before 'to'");
+        }
+
+        Map<LocalDateTime, long[]> series = new TreeMap<>();
+        accumulate(series, BucketGranularity.HOUR, from, to, subjectId, difficulty, granularity);
+        if (granularity == BucketGranularity.DAY) {
+            accumulate(series, BucketGranularity.DAY, from, to, subjectId, difficulty, granularity);
+        }
+
+        List<TimeSeriesPointDTO> points = new ArrayList<>(series.size());
+        for (Map.Entry<LocalDateTime, long[]> e : series.entrySet()) {
+            long[] c = e.getValue();
+            points.add(new TimeSeriesPointDTO(
+                    e.getKey(),
+                    c[ATTEMPTS],
+                    c[ANSWERS],
+                    c[CORRECT],
+                    c[SKIPPED],
+                    c[ANSWERS] == 0 ? 0 : (c[CORRECT] * 100.0) / c[ANSWERS],
+                    c[RESPONSE_COUNT] == 0 ? 0 : (double) c[RESPONSE_MS] / c[RESPONSE_COUNT]));
+        }
+        return points;
+    }
+
+    private void accumulate(Map<LocalDateTime, long[]> series, BucketGranularity source, LocalDateTime from,
+            LocalDateTime to, Long subjectId, Difficulty difficulty, BucketGranularity target) {
+
+        List<AnalyticsBucket> rows = bucketRepo.findRange(source, from, to, subjectId, difficulty);
+
+        for (AnalyticsBucket b : rows) {
+            LocalDateTime slot = target == BucketGranularity.DAY
+                    ? b.getBucketStart().truncatedTo(ChronoUnit.DAYS)
+                    : b.getBucketStart();
+
+            long[] c = series.computeIfAbsent(slot, k -> new long[SLOTS]);
+            c[ATTEMPTS] += b.getAttempts();
+            c[ANSWERS] += b.getAnswers();
+            c[CORRECT] += b.getCorrectAnswers();
+            c[SKIPPED] += b.getSkippedAnswers();
+            c[RESPONSE_MS] += b.getResponseTimeMsSum();
+            c[RESPONSE_COUNT] += b.getResponseTimeCount();
+        }
+    }
+}
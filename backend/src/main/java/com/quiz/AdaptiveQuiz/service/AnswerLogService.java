@@ -0,0 +1,639 @@
+package com.quiz.AdaptiveQuiz.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quiz.AdaptiveQuiz.config.QuestionBankCli;
+import com.quiz.AdaptiveQuiz.entity.Difficulty;
+import com.quiz.AdaptiveQuiz.entity.QuizAttempt;
+import com.quiz.AdaptiveQuiz.entity.UserResponse;
+import com.quiz.AdaptiveQuiz.repository.UserResponseRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Write-behind log for quiz answers. submit appends one JSON line to a local
+// log file and fsyncs it (concurrent submits share one fsync); a background
+// flusher then writes the entries to user_response as batched multi-row
+// INSERT IGNOREs keyed by log_id. Whatever is still in the log at startup is
+// replayed.
+//
+// The log is a series of segment files. Appends go to the newest one, which is
+// sealed once it reaches answers.log.segment-bytes; a sealed segment is deleted
+// once every entry in it is settled, and the newest one is truncated whenever it
+// is. So the log stays bounded under steady traffic too.
+//
+// The line is made durable inside submit's transaction, before the ack, but an
+// entry only reaches the flusher (and lastAnswers) once that transaction has
+// committed. A line whose transaction rolled back stays in the file, so replay
+// checks each entry's seq against quiz_attempt.answer_seq, which submit bumps in
+// the same transaction: only the last entry written for an (attempt, seq) can
+// have committed, since submit holds the attempt row lock, and it did if
+// answer_seq has reached it.
+@Service
+@Profile("!" + QuestionBankCli.PROFILE) // must never replay or truncate a live server's log
+@DependsOn("schemaMigrator") // replay reads quiz_attempt.answer_seq
+public class AnswerLogService {
+
+    // seq: the attempt's answer_seq after this answer; 0 in lines from before it existed
+    public record Entry(
+            String id,
+            Long attemptId,
+            int seq,
+            String questionText,
+            String selectedAnswer,
+            String correctAnswer,
+            Difficulty difficulty,
+            boolean correct,
+            LocalDateTime createdAt) {
+    }
+
+    // Most recent answer of an attempt; questionText is null before the first answer
+    public record LastAnswer(String questionText, LocalDateTime createdAt) {
+    }
+
+    // One file of the log
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private long size; // guarded by writeLock
+        private long appended; // guarded by writeLock
+        private volatile long synced;
+        // Appended entries that are in the DB, or whose transaction rolled back
+        private final AtomicLong settled = new AtomicLong();
+
+        Segment(Path path, FileChannel channel, long size) {
+            this.path = path;
+            this.channel = channel;
+            this.size = size;
+            this.synced = size;
+        }
+    }
+
+    // An entry and the segment holding its line
+    private record Logged(Entry entry, Segment segment) {
+    }
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("answers-(\\d+)\\.log");
+    // The single file of earlier versions, replayed before any segment
+    private static final String LEGACY_FILE = "answers.log";
+
+    private static final String INSERT_SQL = """
+            INSERT IGNORE INTO user_response
+                (log_id, attempt_id, question_text, selected_answer, correct_answer, difficulty, is_correct, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate flushTx;
+    private final ObjectMapper mapper;
+    private final UserResponseRepository responseRepo;
+    private final AnalyticsRollupService rollupService;
+
+    private final ConcurrentLinkedQueue<Logged> pending = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<Long, LastAnswer> lastAnswers = new ConcurrentHashMap<>();
+
+    // Lock order: syncLock before writeLock
+    private final Object writeLock = new Object();
+    private final Object syncLock = new Object();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private Path dir;
+    private FileChannel lockChannel;
+    // Oldest first; the last one is active
+    private final List<Segment> segments = new ArrayList<>(); // guarded by writeLock
+    private Segment active; // guarded by writeLock
+    private long nextSegmentId; // guarded by writeLock
+    private List<Logged> retry = new ArrayList<>(); // guarded by flushLock
+
+    // Not on the shared @Scheduled pool: a long job there must never hold answers back
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "answer-log-flush");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Value("${answers.log.dir:./data/answer-log}")
+    private String logDir;
+
+    @Value("${answers.log.flush-ms:500}")
+    private long flushMs;
+
+    @Value("${answers.log.batch-size:500}")
+    private int batchSize;
+
+    @Value("${answers.log.fsync:true}")
+    private boolean fsync;
+
+    @Value("${answers.log.segment-bytes:16777216}")
+    private long segmentBytes;
+
+    public AnswerLogService(JdbcTemplate jdbc,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper mapper,
+            UserResponseRepository responseRepo,
+            AnalyticsRollupService rollupService) {
+        this.jdbc = jdbc;
+        this.flushTx = new TransactionTemplate(transactionManager);
+        this.flushTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.mapper = mapper;
+        this.responseRepo = responseRepo;
+        this.rollupService = rollupService;
+    }
+
+    // =========================
+    // STARTUP / REPLAY
+    // =========================
+    @PostConstruct
+    public void open() throws IOException {
+        dir = Path.of(logDir);
+        Files.createDirectories(dir);
+        lock(dir);
+
+        List<Logged> logged = new ArrayList<>();
+        for (Path file : segmentFiles()) {
+            Segment segment = new Segment(file, FileChannel.open(file, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE), Files.size(file));
+            read(segment, logged);
+            segments.add(segment);
+        }
+
+        List<Logged> committed = committedEntries(logged);
+        pending.addAll(committed);
+        // The rest never reach the DB: settle them so their segments can go
+        Set<Logged> replayed = Collections.newSetFromMap(new IdentityHashMap<>());
+        replayed.addAll(committed);
+        for (Logged l : logged) {
+            if (!replayed.contains(l)) {
+                l.segment().settled.incrementAndGet();
+            }
+        }
+
+        // Appends always start a fresh segment; the replayed ones are sealed
+        synchronized (writeLock) {
+            startSegment();
+        }
+
+        if (!logged.isEmpty()) {
+            System.out.println("✅ Replaying " + committed.size() + " answers from the answer log ("
+                    + (logged.size() - committed.size()) + " from rolled-back submits dropped)");
+        }
+    }
+
+    // Legacy file first, then segments in the order they were started
+    private List<Path> segmentFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (Files.exists(dir.resolve(LEGACY_FILE))) {
+            files.add(dir.resolve(LEGACY_FILE));
+        }
+        List<Path> numbered = new ArrayList<>();
+        try (Stream<Path> list = Files.list(dir)) {
+            list.filter(f -> SEGMENT_NAME.matcher(f.getFileName().toString()).matches()).forEach(numbered::add);
+        }
+        numbered.sort((a, b) -> Long.compare(segmentId(a), segmentId(b)));
+        for (Path f : numbered) {
+            nextSegmentId = Math.max(nextSegmentId, segmentId(f) + 1);
+        }
+        files.addAll(numbered);
+        return files;
+    }
+
+    private static long segmentId(Path file) {
+        Matcher m = SEGMENT_NAME.matcher(file.getFileName().toString());
+        return m.matches() ? Long.parseLong(m.group(1)) : -1;
+    }
+
+    // A half-written last line from a crash has no newline and is ignored
+    private void read(Segment segment, List<Logged> into) throws IOException {
+        byte[] content = Files.readAllBytes(segment.path);
+        for (int start = 0, nl; (nl = indexOf(content, (byte) '\n', start)) >= 0; start = nl + 1) {
+            try {
+                into.add(new Logged(mapper.readValue(content, start, nl - start, Entry.class), segment));
+                segment.appended++;
+            } catch (IOException e) {
+                System.err.println("Skipping unreadable answer-log line: " + e.getMessage());
+            }
+        }
+    }
+
+    // Seals the active segment (if any) and starts the next one. Caller holds writeLock.
+    private void startSegment() throws IOException {
+        Path file = dir.resolve(String.format("answers-%012d.log", nextSegmentId++));
+        Segment segment = new Segment(file, FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE), 0);
+        syncDirectory();
+        segments.add(segment);
+        active = segment;
+    }
+
+    // Makes a new file's directory entry durable, so an fsynced line in it survives a power loss
+    private void syncDirectory() {
+        if (!fsync) {
+            return;
+        }
+        try (FileChannel d = FileChannel.open(dir, StandardOpenOption.READ)) {
+            d.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform
+        }
+    }
+
+    // Held until close(): a second process on the same directory (another server, the
+    // question-bank CLI) would replay and truncate the log under this one
+    private void lock(Path dir) throws IOException {
+        lockChannel = FileChannel.open(dir.resolve("answers.lock"), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null; // held by another application context in this JVM
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Answer log " + dir.toAbsolutePath()
+                    + " is in use by another process; each node needs its own answers.log.dir");
+        }
+    }
+
+    // The entries of the log whose submit committed (see the class comment)
+    private List<Logged> committedEntries(List<Logged> logged) {
+        // (attemptId, seq) -> index of the last entry written for it
+        Map<String, Integer> last = new HashMap<>();
+        Set<Long> attemptIds = new HashSet<>();
+        for (int i = 0; i < logged.size(); i++) {
+            Entry e = logged.get(i).entry();
+            if (e.seq() > 0) {
+                last.put(e.attemptId() + ":" + e.seq(), i);
+                attemptIds.add(e.attemptId());
+            }
+        }
+
+        Map<Long, Integer> answerSeq = new HashMap<>();
+        List<Long> ids = new ArrayList<>(attemptIds);
+        for (int from = 0; from < ids.size(); from += 1000) {
+            List<Long> chunk = ids.subList(from, Math.min(from + 1000, ids.size()));
+            jdbc.query("SELECT attempt_id, answer_seq FROM quiz_attempt "
+                    + "WHERE attempt_id IN (" + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")",
+                    rs -> {
+                        answerSeq.put(rs.getLong(1), rs.getInt(2));
+                    }, chunk.toArray());
+        }
+
+        List<Logged> committed = new ArrayList<>(logged.size());
+        for (int i = 0; i < logged.size(); i++) {
+            Entry e = logged.get(i).entry();
+            if (e.seq() == 0) {
+                committed.add(logged.get(i)); // written before seq existed: replayed as before
+            } else if (last.get(e.attemptId() + ":" + e.seq()) == i
+                    && answerSeq.getOrDefault(e.attemptId(), 0) >= e.seq()) {
+                committed.add(logged.get(i));
+            }
+        }
+        return committed;
+    }
+
+    // Replayed entries go out on the first run
+    @EventListener(ApplicationReadyEvent.class)
+    public void startFlusher() {
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                // A thrown exception would cancel every later run
+                System.err.println("Answer log flush failed: " + e.getMessage());
+            }
+        }, 0, flushMs, TimeUnit.MILLISECONDS);
+    }
+
+    // =========================
+    // APPEND (request path)
+    // =========================
+    // Returns once the entry is durable on local disk. Inside a transaction the
+    // entry is handed to the flusher on commit and dropped on rollback; the DB
+    // insert happens later.
+    public void append(Entry entry) {
+        byte[] line;
+        try {
+            line = (mapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Segment segment;
+        long end;
+        synchronized (writeLock) {
+            try {
+                if (active.size >= segmentBytes) {
+                    startSegment();
+                }
+                segment = active;
+                ByteBuffer buf = ByteBuffer.wrap(line);
+                while (buf.hasRemaining()) {
+                    segment.channel.write(buf);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Could not record answer, please retry");
+            }
+            segment.size += line.length;
+            end = segment.size;
+            segment.appended++;
+        }
+        Logged logged = new Logged(entry, segment);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                if (fsync) {
+                    syncTo(segment, end);
+                }
+            } catch (RuntimeException e) {
+                segment.settled.incrementAndGet();
+                throw e;
+            }
+            committed(logged);
+            return;
+        }
+        // Registered before the fsync, so a failing fsync (which fails the submit) is settled
+        // too; and before submit's own afterCommit, whose flush must include this entry
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                committed(logged);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    segment.settled.incrementAndGet();
+                }
+            }
+        });
+        if (fsync) {
+            syncTo(segment, end);
+        }
+    }
+
+    private void committed(Logged logged) {
+        Entry entry = logged.entry();
+        pending.add(logged);
+        lastAnswers.put(entry.attemptId(), new LastAnswer(entry.questionText(), entry.createdAt()));
+    }
+
+    // Group commit: one force() covers every append written before it started
+    // A segment is only deleted once its entries are settled, so it is still open here
+    private void syncTo(Segment segment, long end) {
+        if (segment.synced >= end) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (segment.synced >= end) {
+                return;
+            }
+            long target;
+            synchronized (writeLock) {
+                target = segment.size;
+            }
+            try {
+                segment.channel.force(false);
+            } catch (IOException e) {
+                throw new RuntimeException("Could not record answer, please retry");
+            }
+            segment.synced = target;
+        }
+    }
+
+    // =========================
+    // READS THAT MUST SEE UNFLUSHED ANSWERS
+    // =========================
+    public void attemptStarted(Long attemptId, LocalDateTime startTime) {
+        lastAnswers.put(attemptId, new LastAnswer(null, startTime));
+    }
+
+    public LastAnswer lastAnswer(QuizAttempt attempt) {
+        LastAnswer last = lastAnswers.get(attempt.getAttemptId());
+        if (last != null) {
+            return last;
+        }
+        // Attempt started before a restart (or on another node): ask the DB once
+        UserResponse r = responseRepo.findTopByAttemptOrderByIdDesc(attempt);
+        last = r != null
+                ? new LastAnswer(r.getQuestionText(), r.getCreatedAt())
+                : new LastAnswer(null, attempt.getStartTime());
+        lastAnswers.put(attempt.getAttemptId(), last);
+        return last;
+    }
+
+    public List<String> pendingQuestionTexts(Long attemptId) {
+        List<String> texts = new ArrayList<>();
+        for (Logged l : pending) {
+            if (l.entry().attemptId().equals(attemptId)) {
+                texts.add(l.entry().questionText());
+            }
+        }
+        return texts;
+    }
+
+    public void forget(Long attemptId) {
+        lastAnswers.remove(attemptId);
+    }
+
+    @Scheduled(fixedDelay = 600000)
+    public void evictStaleAttempts() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(2);
+        lastAnswers.values().removeIf(a -> a.createdAt() == null || a.createdAt().isBefore(cutoff));
+    }
+
+    // =========================
+    // FLUSH
+    // =========================
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Logged> batch;
+            while (!(batch = nextBatch()).isEmpty()) {
+                try {
+                    List<Entry> entries = batch.stream().map(Logged::entry).toList();
+                    int[] counts = insert(entries);
+                    applyRollups(entries, counts);
+                    for (Logged l : batch) {
+                        l.segment().settled.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    retry = batch;
+                    System.err.println("Answer log flush failed, will retry: " + e.getMessage());
+                    return;
+                }
+            }
+            releaseDrained();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private List<Logged> nextBatch() {
+        if (!retry.isEmpty()) {
+            List<Logged> batch = retry;
+            retry = new ArrayList<>();
+            return batch;
+        }
+        List<Logged> batch = new ArrayList<>(Math.min(batchSize, 64));
+        Logged e;
+        while (batch.size() < batchSize && (e = pending.poll()) != null) {
+            batch.add(e);
+        }
+        return batch;
+    }
+
+    // Own transaction so the flusher never joins a caller's transaction
+    private int[] insert(List<Entry> batch) {
+        return flushTx.execute(status -> jdbc.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Entry e = batch.get(i);
+                ps.setString(1, e.id());
+                ps.setLong(2, e.attemptId());
+                ps.setString(3, e.questionText());
+                ps.setString(4, e.selectedAnswer());
+                ps.setString(5, e.correctAnswer());
+                ps.setString(6, e.difficulty().name());
+                ps.setBoolean(7, e.correct());
+                ps.setTimestamp(8, Timestamp.valueOf(e.createdAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+        }));
+    }
+
+    // Rows skipped by INSERT IGNORE (already flushed before a crash, or attempt deleted)
+    // report 0 and are not counted again. Rewritten multi-row batches only report
+    // SUCCESS_NO_INFO; the hourly rollup reconcile absorbs that rare replay overlap.
+    private void applyRollups(List<Entry> batch, int[] counts) {
+        Map<Difficulty, long[]> byDifficulty = new EnumMap<>(Difficulty.class);
+        for (int i = 0; i < batch.size(); i++) {
+            if (counts[i] <= 0 && counts[i] != Statement.SUCCESS_NO_INFO) {
+                continue;
+            }
+            Entry e = batch.get(i);
+            long[] c = byDifficulty.computeIfAbsent(e.difficulty(), d -> new long[2]);
+            c[e.correct() ? 0 : 1]++;
+        }
+        for (Map.Entry<Difficulty, long[]> d : byDifficulty.entrySet()) {
+            rollupService.recordAnswers(d.getKey(), d.getValue()[0], d.getValue()[1]);
+        }
+    }
+
+    // Sealed segments whose entries are all settled are deleted; the active one
+    // starts over once everything in it is settled
+    private void releaseDrained() {
+        List<Segment> drained = new ArrayList<>();
+        synchronized (syncLock) {
+            synchronized (writeLock) {
+                for (Iterator<Segment> it = segments.iterator(); it.hasNext();) {
+                    Segment segment = it.next();
+                    if (segment != active && segment.settled.get() >= segment.appended) {
+                        it.remove();
+                        drained.add(segment);
+                    }
+                }
+                if (active.size > 0 && active.settled.get() == active.appended) {
+                    try {
+                        active.channel.truncate(0);
+                        active.channel.position(0);
+                        active.size = 0;
+                        active.synced = 0;
+                        active.appended = 0;
+                        active.settled.set(0);
+                    } catch (IOException e) {
+                        System.err.println("Answer log truncate failed: " + e.getMessage());
+                    }
+                }
+            }
+        }
+        for (Segment segment : drained) {
+            try {
+                segment.channel.close();
+                Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                System.err.println("Deleting answer-log segment " + segment.path + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        synchronized (writeLock) {
+            for (Segment segment : segments) {
+                segment.channel.close();
+            }
+        }
+        lockChannel.close(); // releases the lock
+    }
+
+    private static int indexOf(byte[] bytes, byte b, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,99 @@
+package com.quiz.AdaptiveQuiz.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+// Finishes attempts whose 15 minutes ran out without the client calling /finish,
+// so they get their accuracy, skill snapshot and rollups like any other attempt.
+//
+// Attempts started on this node come due on the shared timing wheel (see
+// QuizTimerService) and are finished here in batches. Attempts no node is
+// tracking (started before a restart, or on a node that died) are found by a DB
+// sweep that only the holder of the "attempt-expiry" lease runs. finishQuiz
+// claims the attempt with a conditional UPDATE, so overlaps are no-ops.
+@Service
+public class AttemptExpiryService {
+
+    private static final String LEASE = "attempt-expiry";
+
+    private final QuizService quizService;
+    private final QuizTimerService quizTimer;
+    private final SchedulerLeaseService leases;
+    private final JdbcTemplate jdbc;
+
+    @Value("${quiz.expiry.batch-size:200}")
+    private int batchSize;
+
+    @Value("${quiz.expiry.grace-seconds:30}")
+    private int graceSeconds;
+
+    @Value("${quiz.expiry.lease-seconds:120}")
+    private int leaseSeconds;
+
+    public AttemptExpiryService(QuizService quizService,
+            QuizTimerService quizTimer,
+            SchedulerLeaseService leases,
+            JdbcTemplate jdbc) {
+        this.quizService = quizService;
+        this.quizTimer = quizTimer;
+        this.leases = leases;
+        this.jdbc = jdbc;
+    }
+
+    // Attempts that came due on this node's wheel
+    @Scheduled(fixedDelayString = "${quiz.expiry.drain-ms:5000}")
+    public void finishDue() {
+        List<Long> due;
+        while (!(due = quizTimer.pollExpired(batchSize)).isEmpty()) {
+            finish(due);
+        }
+    }
+
+    // Cluster-wide catch-up, one node at a time
+    @Scheduled(fixedDelayString = "${quiz.expiry.sweep-ms:60000}", initialDelayString = "${quiz.expiry.sweep-ms:60000}")
+    public void sweep() {
+        if (!leases.tryAcquire(LEASE, leaseSeconds)) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now()
+                .minusSeconds(QuizTimerService.QUIZ_SECONDS + graceSeconds);
+        List<Long> open;
+        int batchFinished;
+        int finished = 0;
+        do {
+            open = jdbc.queryForList("""
+                    SELECT attempt_id FROM quiz_attempt
+                    WHERE end_time IS NULL AND start_time < ?
+                    ORDER BY start_time LIMIT ?
+                    """, Long.class, cutoff, batchSize);
+            batchFinished = finish(open);
+            finished += batchFinished;
+            // Renew between batches so a long backlog never outlives the lease; stop if
+            // a whole batch failed rather than selecting the same rows again
+        } while (open.size() == batchSize && batchFinished > 0 && leases.tryAcquire(LEASE, leaseSeconds));
+
+        if (finished > 0) {
+            System.out.println("✅ Auto-finished " + finished + " expired attempts");
+        }
+    }
+
+    // One transaction per attempt, so one bad row doesn't hold back the batch
+    private int finish(List<Long> attemptIds) {
+        int finished = 0;
+        for (Long id : attemptIds) {
+            try {
+                if (quizService.finishQuiz(id)) {
+                    finished++;
+                }
+            } catch (Exception e) {
+                System.err.println("Auto-finish of attempt " + id + " failed: " + e.getMessage());
+            }
+        }
+        return finished;
+    }
+}
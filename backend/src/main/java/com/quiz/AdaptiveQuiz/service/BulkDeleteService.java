@@ -0,0 +1,234 @@
+package com.quiz.AdaptiveQuiz.service;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.quiz.AdaptiveQuiz.dto.DeletionJobDTO;
+import com.quiz.AdaptiveQuiz.repository.UserRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Admin deletes of a user or subject with everything hanging off it. Rows are
+// removed with plain DELETE ... IN / LIMIT statements, each one autocommitted,
+// so no statement holds locks for long and nothing is loaded into the
+// persistence context. Jobs run one at a time on a background thread and report
+// progress until they are evicted an hour after finishing.
+@Service
+public class BulkDeleteService {
+
+    private final JdbcTemplate jdbc;
+    private final UserRepository userRepo;
+    private final SessionVersionService sessionVersions;
+    private final AnalyticsRollupService rollupService;
+    private final NearDuplicateService nearDuplicates;
+    private final ResourceVersionService resourceVersions;
+    private final SubjectRegistryService subjectRegistry;
+    private final AdaptiveLogicService adaptiveLogic;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "bulk-delete");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Value("${admin.delete.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${admin.delete.attempt-chunk-size:200}")
+    private int attemptChunkSize;
+
+    public BulkDeleteService(JdbcTemplate jdbc,
+            UserRepository userRepo,
+            SessionVersionService sessionVersions,
+            AnalyticsRollupService rollupService,
+            NearDuplicateService nearDuplicates,
+            ResourceVersionService resourceVersions,
+            SubjectRegistryService subjectRegistry,
+            AdaptiveLogicService adaptiveLogic) {
+        this.jdbc = jdbc;
+        this.userRepo = userRepo;
+        this.sessionVersions = sessionVersions;
+        this.rollupService = rollupService;
+        this.nearDuplicates = nearDuplicates;
+        this.resourceVersions = resourceVersions;
+        this.subjectRegistry = subjectRegistry;
+        this.adaptiveLogic = adaptiveLogic;
+    }
+
+    // =========================
+    // JOBS
+    // =========================
+    public DeletionJobDTO deleteUser(Long userId) {
+        // Log the user out everywhere before the rows start going away
+        userRepo.incrementSessionVersion(userId);
+        sessionVersions.revoke(userId);
+        return submit(new Job("USER", userId), this::runUserDelete);
+    }
+
+    public DeletionJobDTO deleteSubject(Long subjectId) {
+        return submit(new Job("SUBJECT", subjectId), this::runSubjectDelete);
+    }
+
+    public DeletionJobDTO getJob(String id) {
+        Job job = jobs.get(id);
+        return job == null ? null : job.snapshot();
+    }
+
+    private DeletionJobDTO submit(Job job, Consumer<Job> body) {
+        jobs.put(job.id, job);
+        worker.submit(() -> {
+            job.status = "RUNNING";
+            try {
+                body.accept(job);
+                job.step = "done";
+                job.status = "DONE";
+                System.out.println("✅ Deleted " + job.kind.toLowerCase() + " " + job.targetId + " ("
+                        + job.rowsDeleted + " rows)");
+            } catch (Exception e) {
+                // Whatever was deleted stays deleted; running the job again picks up the rest
+                job.error = e.getMessage();
+                job.status = "FAILED";
+                System.err.println("Deleting " + job.kind.toLowerCase() + " " + job.targetId + " failed: "
+                        + e.getMessage());
+            } finally {
+                job.finishedAt = LocalDateTime.now();
+            }
+        });
+        return job.snapshot();
+    }
+
+    @Scheduled(fixedDelay = 600000)
+    public void evictFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(1);
+        jobs.values().removeIf(j -> j.finishedAt != null && j.finishedAt.isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    // =========================
+    // USER
+    // =========================
+    private void runUserDelete(Job job) {
+        deleteAttempts(job, "user_id", job.targetId);
+
+        job.step = "skill_snapshots";
+        deleteInChunks(job, "DELETE FROM skill_snapshots WHERE user_id = ? LIMIT ?", job.targetId);
+
+        // Forget the in-memory ratings first, or the next checkpoint puts the rows back
+        job.step = "skill_ratings";
+        adaptiveLogic.forgetUser(job.targetId);
+        job.rowsDeleted += jdbc.update("DELETE FROM skill_ratings WHERE user_id = ?", job.targetId);
+
+        job.step = "users";
+        job.rowsDeleted += jdbc.update("DELETE FROM user_stats WHERE user_id = ?", job.targetId);
+        job.rowsDeleted += jdbc.update("DELETE FROM users WHERE id = ?", job.targetId);
+        resourceVersions.bump(ResourceVersionService.LEADERBOARD);
+    }
+
+    // =========================
+    // SUBJECT
+    // =========================
+    private void runSubjectDelete(Job job) {
+        deleteAttempts(job, "subject_id", job.targetId);
+
+        job.step = "skill_snapshots";
+        deleteInChunks(job, "DELETE FROM skill_snapshots WHERE subject_id = ? LIMIT ?", job.targetId);
+
+        job.step = "skill_ratings";
+        adaptiveLogic.forgetSubject(job.targetId);
+        deleteInChunks(job, "DELETE FROM skill_ratings WHERE subject_id = ? LIMIT ?", job.targetId);
+        deleteInChunks(job, "DELETE FROM question_ratings WHERE subject_id = ? LIMIT ?", job.targetId);
+
+        job.step = "questions";
+        List<Long> ids;
+        while (!(ids = jdbc.queryForList("SELECT id FROM questions WHERE subject_id = ? LIMIT ?",
+                Long.class, job.targetId, chunkSize)).isEmpty()) {
+            String in = placeholders(ids.size());
+            jdbc.update("DELETE FROM question_options WHERE question_id IN (" + in + ")", ids.toArray());
+            jdbc.update("DELETE FROM question_signatures WHERE question_id IN (" + in + ")", ids.toArray());
+            job.rowsDeleted += jdbc.update("DELETE FROM questions WHERE id IN (" + in + ")", ids.toArray());
+        }
+
+        job.step = "subjects";
+        job.rowsDeleted += jdbc.update("DELETE FROM subjects WHERE id = ?", job.targetId);
+        rollupService.forgetSubject(job.targetId);
+        nearDuplicates.forgetSubject(job.targetId);
+        resourceVersions.bump(ResourceVersionService.SUBJECTS);
+        subjectRegistry.reload();
+        resourceVersions.bump(ResourceVersionService.LEADERBOARD);
+    }
+
+    // =========================
+    // SHARED STEPS
+    // =========================
+    // Attempts go a few hundred at a time: first their responses (in LIMIT chunks), then the attempts
+    private void deleteAttempts(Job job, String ownerColumn, Long ownerId) {
+        List<Long> attemptIds;
+        while (!(attemptIds = jdbc.queryForList(
+                "SELECT attempt_id FROM quiz_attempt WHERE " + ownerColumn + " = ? LIMIT ?",
+                Long.class, ownerId, attemptChunkSize)).isEmpty()) {
+            String in = placeholders(attemptIds.size());
+            Object[] args = attemptIds.toArray();
+
+            job.step = "user_response";
+            deleteInChunks(job, "DELETE FROM user_response WHERE attempt_id IN (" + in + ") LIMIT ?", args);
+
+            job.step = "quiz_attempt";
+            job.rowsDeleted += jdbc.update("DELETE FROM quiz_attempt WHERE attempt_id IN (" + in + ")", args);
+        }
+    }
+
+    // sql ends with "LIMIT ?", which gets the chunk size
+    private void deleteInChunks(Job job, String sql, Object... args) {
+        Object[] params = Arrays.copyOf(args, args.length + 1);
+        params[args.length] = chunkSize;
+        int deleted;
+        do {
+            deleted = jdbc.update(sql, params);
+            job.rowsDeleted += deleted;
+        } while (deleted > 0);
+    }
+
+    private static String placeholders(int n) {
+        return String.join(",", Collections.nCopies(n, "?"));
+    }
+
+    // Written by the worker thread, read by status requests
+    private static class Job {
+        private final String id = UUID.randomUUID().toString();
+        private final String kind;
+        private final Long targetId;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private volatile String status = "QUEUED";
+        private volatile String step = "queued";
+        private volatile long rowsDeleted;
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+
+        Job(String kind, Long targetId) {
+            this.kind = kind;
+            this.targetId = targetId;
+        }
+
+        DeletionJobDTO snapshot() {
+            return new DeletionJobDTO(id, kind, targetId, status, step, rowsDeleted, error, startedAt, finishedAt);
+        }
+    }
+}
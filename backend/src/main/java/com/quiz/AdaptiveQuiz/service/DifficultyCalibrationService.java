@@ -0,0 +1,171 @@
+package com.quiz.AdaptiveQuiz.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.quiz.AdaptiveQuiz.util.ContentHash;
+import com.quiz.AdaptiveQuiz.util.LongIntHashMap;
+
+// Recalibrates the difficulty of bank questions from how often they were
+// actually answered right. user_response is read in id order from a high-water
+// mark, one chunk per transaction: the chunk's answers are counted per question
+// in primitive maps, added to the questions' running counts, and the watermark
+// moves on in the same transaction, so every answer is counted exactly once.
+//
+// A question with enough answers is relabelled EASY / MEDIUM / HARD by its
+// correct rate and flagged if nobody, or everybody, gets it right. Responses
+// are matched to questions by content hash; generated questions that never
+// made it into the bank are skipped. One node at a time, via scheduler_lease.
+@Service
+public class DifficultyCalibrationService {
+
+    private static final String JOB = "difficulty-calibration";
+
+    private final JdbcTemplate jdbc;
+    private final SchedulerLeaseService leases;
+    private final QuestionSelectionService questionSelection;
+    private final TransactionTemplate tx;
+
+    @Value("${calibration.chunk-size:20000}")
+    private int chunkSize;
+
+    @Value("${calibration.min-answers:30}")
+    private int minAnswers;
+
+    // Correct rate at or above which a question is EASY; below hard-below it is HARD
+    @Value("${calibration.easy-above:0.75}")
+    private double easyAbove;
+
+    @Value("${calibration.hard-below:0.40}")
+    private double hardBelow;
+
+    @Value("${calibration.lease-seconds:600}")
+    private int leaseSeconds;
+
+    public DifficultyCalibrationService(JdbcTemplate jdbc,
+            SchedulerLeaseService leases,
+            QuestionSelectionService questionSelection,
+            PlatformTransactionManager transactionManager) {
+        this.jdbc = jdbc;
+        this.leases = leases;
+        this.questionSelection = questionSelection;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${calibration.interval-ms:3600000}", initialDelayString = "${calibration.initial-delay-ms:300000}")
+    public void calibrate() {
+        if (!leases.tryAcquire(JOB, leaseSeconds)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        long scanned = 0;
+        long updated = 0;
+        try {
+            long horizon = jdbc.queryForObject(
+                    "SELECT horizon_id FROM job_watermark WHERE name = ?", Long.class, JOB);
+            long[] chunk;
+            do {
+                chunk = tx.execute(status -> calibrateChunk(horizon));
+                scanned += chunk[0];
+                updated += chunk[1];
+                // Renew between chunks so a long backlog never outlives the lease
+            } while (chunk[0] > 0 && leases.tryAcquire(JOB, leaseSeconds));
+
+            // Next run reads up to what exists now
+            jdbc.update("UPDATE job_watermark SET horizon_id = (SELECT COALESCE(MAX(id), 0) FROM user_response), "
+                    + "updated_at = NOW() WHERE name = ?", JOB);
+
+            if (scanned > 0) {
+                // Relabelled / flagged questions move buckets; other nodes catch up on their next rebuild
+                questionSelection.rebuild();
+                System.out.println("✅ Calibrated questions from " + scanned + " responses (" + updated
+                        + " question updates) in " + (System.currentTimeMillis() - start) + " ms");
+            }
+        } catch (Exception e) {
+            // The watermark only moves with committed chunks; the next run picks up from there
+            System.err.println("Difficulty calibration failed: " + e.getMessage());
+        } finally {
+            leases.release(JOB);
+        }
+    }
+
+    // Returns {responses read, question rows updated}; {0, 0} once the horizon is reached
+    private long[] calibrateChunk(long horizon) {
+        long from = jdbc.queryForObject(
+                "SELECT last_id FROM job_watermark WHERE name = ? FOR UPDATE", Long.class, JOB);
+        if (from >= horizon) {
+            return new long[] { 0, 0 };
+        }
+
+        LongIntHashMap answered = new LongIntHashMap(4096);
+        LongIntHashMap correct = new LongIntHashMap(4096);
+        long[] last = { from };
+        int[] read = { 0 };
+        jdbc.query("""
+                SELECT r.id, a.subject_id, r.question_text, r.selected_answer, r.is_correct
+                FROM user_response r JOIN quiz_attempt a ON a.attempt_id = r.attempt_id
+                WHERE r.id > ? AND r.id <= ?
+                ORDER BY r.id LIMIT ?
+                """, rs -> {
+            last[0] = rs.getLong(1);
+            read[0]++;
+            // Skips say nothing about how hard the question is
+            if ("SKIPPED".equals(rs.getString(4))) {
+                return;
+            }
+            long key = AdaptiveLogicService.questionKey(ContentHash.of(rs.getLong(2), rs.getString(3)));
+            answered.addTo(key, 1);
+            if (rs.getBoolean(5)) {
+                correct.addTo(key, 1);
+            }
+        }, from, horizon, chunkSize);
+
+        if (read[0] == 0) {
+            // Nothing left below the horizon (gaps from deleted rows)
+            jdbc.update("UPDATE job_watermark SET last_id = ?, updated_at = NOW() WHERE name = ?", horizon, JOB);
+            return new long[] { 0, 0 };
+        }
+
+        List<Object[]> args = new ArrayList<>(answered.size());
+        answered.forEach((key, n) -> args.add(new Object[] {
+                n, correct.get(key, 0),
+                minAnswers, easyAbove, hardBelow,
+                minAnswers,
+                String.format("%016x", key) + "%" }));
+
+        long updated = 0;
+        if (!args.isEmpty()) {
+            // MySQL applies single-table SET assignments left to right, so the CASEs
+            // below already see the new counts
+            int[] counts = jdbc.batchUpdate("""
+                    UPDATE questions SET
+                        answered_count = answered_count + ?,
+                        correct_count = correct_count + ?,
+                        difficulty = CASE
+                            WHEN answered_count < ? THEN difficulty
+                            WHEN correct_count >= answered_count * ? THEN 'EASY'
+                            WHEN correct_count < answered_count * ? THEN 'HARD'
+                            ELSE 'MEDIUM' END,
+                        calibration_flag = CASE
+                            WHEN answered_count < ? THEN NULL
+                            WHEN correct_count = 0 THEN 'NEVER_CORRECT'
+                            WHEN correct_count = answered_count THEN 'ALWAYS_CORRECT'
+                            ELSE NULL END
+                    WHERE content_hash LIKE ?
+                    """, args);
+            for (int c : counts) {
+                updated += Math.max(c, 0);
+            }
+        }
+
+        jdbc.update("UPDATE job_watermark SET last_id = ?, updated_at = NOW() WHERE name = ?", last[0], JOB);
+        return new long[] { read[0], updated };
+    }
+}
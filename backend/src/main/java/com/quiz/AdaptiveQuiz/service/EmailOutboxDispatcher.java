@@ -0,0 +1,189 @@
+package com.quiz.AdaptiveQuiz.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.quiz.AdaptiveQuiz.config.QuestionBankCli;
+import com.quiz.AdaptiveQuiz.entity.EmailOutbox;
+import com.quiz.AdaptiveQuiz.entity.EmailOutboxStatus;
+import com.quiz.AdaptiveQuiz.repository.EmailOutboxRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Drains email_outbox. Each poll claims a batch of due rows, splits it across a
+// fixed pool of sender threads and sends every chunk over one SMTP connection.
+// Failures are retried with exponential backoff until max-attempts, then parked as FAILED.
+@Service
+@Profile("!" + QuestionBankCli.PROFILE)
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxRepository outboxRepo;
+    private final JavaMailSender mailSender;
+    private final ExecutorService senders;
+    private final int concurrency;
+
+    @Value("${email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.backoff-base-ms:30000}")
+    private long backoffBaseMs;
+
+    @Value("${email.outbox.backoff-max-ms:3600000}")
+    private long backoffMaxMs;
+
+    @Value("${email.outbox.lease-ms:300000}")
+    private long leaseMs;
+
+    @Value("${email.outbox.sent-retention-days:7}")
+    private int sentRetentionDays;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository outboxRepo,
+            JavaMailSender mailSender,
+            @Value("${email.outbox.concurrency:4}") int concurrency) {
+        this.outboxRepo = outboxRepo;
+        this.mailSender = mailSender;
+        this.concurrency = Math.max(1, concurrency);
+        this.senders = Executors.newFixedThreadPool(this.concurrency, r -> {
+            Thread t = new Thread(r, "email-outbox-sender");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // =========================
+    // DISPATCH
+    // =========================
+    // fixedDelay + waiting for the chunks means polls never overlap on one node;
+    // claim() keeps several nodes from sending the same row.
+    @Scheduled(fixedDelayString = "${email.outbox.poll-ms:1000}")
+    public void dispatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> due = outboxRepo.findDue(now, PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime leaseUntil = now.plus(Duration.ofMillis(leaseMs));
+        List<EmailOutbox> claimed = new ArrayList<>(due.size());
+        for (EmailOutbox e : due) {
+            if (outboxRepo.claim(e.getId(), now, leaseUntil) == 1) {
+                claimed.add(e);
+            }
+        }
+
+        int chunks = Math.min(concurrency, claimed.size());
+        int chunkSize = (claimed.size() + chunks - 1) / Math.max(chunks, 1);
+        List<Future<?>> running = new ArrayList<>(chunks);
+        for (int from = 0; from < claimed.size(); from += chunkSize) {
+            List<EmailOutbox> chunk = claimed.subList(from, Math.min(from + chunkSize, claimed.size()));
+            running.add(senders.submit(() -> sendChunk(chunk)));
+        }
+        for (Future<?> f : running) {
+            try {
+                f.get();
+            } catch (Exception e) {
+                // Unsent rows stay claimed until the lease expires and are then retried
+                System.err.println("Email outbox sender failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void sendChunk(List<EmailOutbox> chunk) {
+        SimpleMailMessage[] messages = new SimpleMailMessage[chunk.size()];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = toMessage(chunk.get(i));
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        MailException error = null;
+        try {
+            // One call = one SMTP connection for the whole chunk
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            error = e;
+        } catch (MailException e) {
+            error = e;
+        }
+
+        List<Long> sent = new ArrayList<>(chunk.size());
+        for (int i = 0; i < messages.length; i++) {
+            EmailOutbox row = chunk.get(i);
+            if (error == null || (!failures.isEmpty() && !failures.containsKey(messages[i]))) {
+                sent.add(row.getId());
+            } else {
+                Exception cause = failures.getOrDefault(messages[i], error);
+                recordFailure(row, cause.getMessage());
+            }
+        }
+        if (!sent.isEmpty()) {
+            outboxRepo.markSent(sent, LocalDateTime.now());
+            System.out.println("✅ Sent " + sent.size() + " queued email(s)");
+        }
+    }
+
+    private void recordFailure(EmailOutbox row, String message) {
+        int attempts = row.getAttempts() + 1;
+        String error = message == null ? "unknown error"
+                : message.substring(0, Math.min(message.length(), 500));
+
+        if (attempts >= maxAttempts) {
+            outboxRepo.markAttemptFailed(row.getId(), EmailOutboxStatus.FAILED, LocalDateTime.now(), error);
+            System.err.println("Giving up on email " + row.getId() + " to " + row.getRecipient() + ": " + error);
+            return;
+        }
+
+        // base * 2^(attempts-1), capped, with +/-20% jitter so a burst does not retry in lockstep
+        long delay = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempts - 1, 20));
+        delay += (long) (delay * ThreadLocalRandom.current().nextDouble(-0.2, 0.2));
+        outboxRepo.markAttemptFailed(row.getId(), EmailOutboxStatus.PENDING,
+                LocalDateTime.now().plus(Duration.ofMillis(delay)), error);
+    }
+
+    private SimpleMailMessage toMessage(EmailOutbox row) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("noreply@adaptivequiz.com");
+        message.setTo(row.getRecipient());
+        message.setSubject(row.getSubject());
+        message.setText(row.getBody());
+        return message;
+    }
+
+    // =========================
+    // HOUSEKEEPING
+    // =========================
+    @Scheduled(cron = "${email.outbox.purge-cron:0 30 4 * * *}")
+    public void purgeSent() {
+        int removed = outboxRepo.deleteSentBefore(LocalDateTime.now().minusDays(sentRetentionDays));
+        if (removed > 0) {
+            System.out.println("✅ Purged " + removed + " sent outbox emails");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        senders.shutdown();
+        senders.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
@@ -1,19 +1,25 @@
 package com.quiz.AdaptiveQuiz.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.quiz.AdaptiveQuiz.entity.EmailOutbox;
+import com.quiz.AdaptiveQuiz.repository.EmailOutboxRepository;
 
 @Service
 public class EmailService {
 
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailOutboxRepository outboxRepo;
 
     @org.springframework.beans.factory.annotation.Value("${app.frontend.url}")
     private String frontendUrl;
 
+    // Only writes an outbox row, inside the caller's transaction; the SMTP
+    // conversation happens later in EmailOutboxDispatcher. If the caller rolls
+    // back, no email goes out.
+    @Transactional
     public void sendVerificationEmail(String toEmail, String token) {
         String subject = "Email Verification - Adaptive Quiz App";
         String verificationUrl = frontendUrl + "/verify-email?email=" + toEmail + "&token=" + token;
@@ -25,17 +31,6 @@ public class EmailService {
                 + verificationUrl
                 + "\n\nIf you did not register, please ignore this email.";
 
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom("noreply@adaptivequiz.com");
-        message.setTo(toEmail);
-        message.setSubject(subject);
-        message.setText(messageComp);
-
-        try {
-            mailSender.send(message);
-            System.out.println("Verification email sent to " + toEmail);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to send verification email. Please check your email address.");
-        }
+        outboxRepo.save(new EmailOutbox(toEmail, subject, messageComp));
     }
 }
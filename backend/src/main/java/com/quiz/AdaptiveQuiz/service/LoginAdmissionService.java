@@ -0,0 +1,98 @@
+package com.quiz.AdaptiveQuiz.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+// Token buckets per client IP and per account, checked before any DB read or
+// BCrypt work. Keeps one noisy client (or one targeted account) from using up
+// the password-hashing pool.
+@Service
+public class LoginAdmissionService {
+
+    private static class Bucket {
+        private final double capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefill;
+
+        Bucket(double capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        synchronized boolean tryTake() {
+            refill();
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+
+        synchronized boolean isFull() {
+            refill();
+            return tokens >= capacity;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Bucket> ipBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Bucket> accountBuckets = new ConcurrentHashMap<>();
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Value("${auth.admission.ip-burst:30}")
+    private double ipBurst;
+
+    @Value("${auth.admission.ip-per-second:5}")
+    private double ipPerSecond;
+
+    @Value("${auth.admission.account-burst:5}")
+    private double accountBurst;
+
+    @Value("${auth.admission.account-per-minute:6}")
+    private double accountPerMinute;
+
+    // Throws 429 when either the IP or the account is over its budget
+    public void admit(String clientIp, String account) {
+        if (clientIp != null && !ipBuckets
+                .computeIfAbsent(clientIp, k -> new Bucket(ipBurst, ipPerSecond)).tryTake()) {
+            reject();
+        }
+        if (account != null && !accountBuckets
+                .computeIfAbsent(account.trim().toLowerCase(), k -> new Bucket(accountBurst, accountPerMinute / 60))
+                .tryTake()) {
+            reject();
+        }
+    }
+
+    private void reject() {
+        rejected.incrementAndGet();
+        throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                "Too many attempts. Please wait a moment and try again.");
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    // A full bucket behaves exactly like a new one, so it can be dropped
+    @Scheduled(fixedDelay = 300000)
+    public void evictIdle() {
+        ipBuckets.values().removeIf(Bucket::isFull);
+        accountBuckets.values().removeIf(Bucket::isFull);
+    }
+}
@@ -0,0 +1,250 @@
+package com.quiz.AdaptiveQuiz.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.quiz.AdaptiveQuiz.entity.Question;
+import com.quiz.AdaptiveQuiz.util.LongIntHashMap;
+import com.quiz.AdaptiveQuiz.util.MinHash;
+
+// Near-duplicate index of bank questions: a MinHash signature per question and
+// LSH band tables per subject, all in memory, so a lookup touches only the few
+// questions that share a band and takes microseconds. Generated questions are
+// checked against it before they are saved (paraphrases of a bank question are
+// not stored again) and before a question is served (nothing close to one the
+// user already had).
+//
+// Signatures are persisted in question_signatures (256 bytes each) and loaded
+// at startup; bank rows without one are signed then. Rows added by other nodes
+// are picked up by their sequence number every minute. Like the calibration job,
+// a sync only reads up to the highest seq seen by the sync before it: a lower
+// seq whose INSERT commits after a higher one was read is still picked up.
+@Service
+public class NearDuplicateService {
+
+    // Parallel arrays; the band tables are linked lists through next[]
+    private static final class SubjectIndex {
+        private long[] ids = new long[64];
+        private long[] keys = new long[64];
+        private int[] sigs = new int[64 * MinHash.SIZE];
+        // slot (entry * BANDS + band) -> previous slot in the same band bucket, or -1
+        private int[] next = new int[64 * MinHash.BANDS];
+        // band key -> most recent slot
+        private final LongIntHashMap heads = new LongIntHashMap(256);
+        private int size;
+
+        synchronized void add(long id, long key, int[] sig) {
+            if (size == ids.length) {
+                int cap = size << 1;
+                ids = Arrays.copyOf(ids, cap);
+                keys = Arrays.copyOf(keys, cap);
+                sigs = Arrays.copyOf(sigs, cap * MinHash.SIZE);
+                next = Arrays.copyOf(next, cap * MinHash.BANDS);
+            }
+            ids[size] = id;
+            keys[size] = key;
+            System.arraycopy(sig, 0, sigs, size * MinHash.SIZE, MinHash.SIZE);
+            for (int band = 0; band < MinHash.BANDS; band++) {
+                long bandKey = MinHash.bandKey(sig, 0, band);
+                int slot = size * MinHash.BANDS + band;
+                next[slot] = heads.get(bandKey, -1);
+                heads.put(bandKey, slot);
+            }
+            size++;
+        }
+
+        // Most similar entry at or above the threshold (only among keys in `among`, if given), or -1
+        synchronized int find(int[] sig, double threshold, LongIntHashMap among) {
+            int best = -1;
+            double bestSimilarity = threshold;
+            for (int band = 0; band < MinHash.BANDS; band++) {
+                for (int slot = heads.get(MinHash.bandKey(sig, 0, band), -1); slot >= 0; slot = next[slot]) {
+                    int entry = slot / MinHash.BANDS;
+                    if (among != null && !among.containsKey(keys[entry])) {
+                        continue;
+                    }
+                    double similarity = MinHash.similarity(sigs, entry * MinHash.SIZE, sig);
+                    if (similarity >= bestSimilarity) {
+                        bestSimilarity = similarity;
+                        best = entry;
+                    }
+                }
+            }
+            return best;
+        }
+
+        synchronized long id(int entry) {
+            return ids[entry];
+        }
+    }
+
+    private final JdbcTemplate jdbc;
+    private final Map<Long, SubjectIndex> subjects = new ConcurrentHashMap<>();
+    // Question ids already in the index (guarded by itself)
+    private final LongIntHashMap indexed = new LongIntHashMap(4096);
+    // Read up to lastSeq; the next sync reads up to horizon
+    private long lastSeq; // guarded by this
+    private long horizon = -1; // guarded by this
+
+    // Estimated Jaccard similarity of the content-word sets above which two questions are the same
+    @Value("${questions.dedup.threshold:0.7}")
+    private double threshold;
+
+    @Value("${questions.dedup.batch-size:1000}")
+    private int batchSize;
+
+    public NearDuplicateService(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    // =========================
+    // LOOKUPS
+    // =========================
+    // Id of a bank question in the subject that this text nearly duplicates, or null
+    public Long findDuplicate(Long subjectId, String text) {
+        SubjectIndex index = subjects.get(subjectId);
+        if (index == null) {
+            return null;
+        }
+        int entry = index.find(MinHash.signature(text), threshold, null);
+        return entry >= 0 ? index.id(entry) : null;
+    }
+
+    // Whether the text is close to one of the questions (by AdaptiveLogicService.questionKey) the user saw
+    public boolean similarToSeen(Long subjectId, String text, LongIntHashMap seenKeys) {
+        SubjectIndex index = subjects.get(subjectId);
+        if (index == null || seenKeys == null || seenKeys.isEmpty()) {
+            return false;
+        }
+        return index.find(MinHash.signature(text), threshold, seenKeys) >= 0;
+    }
+
+    // =========================
+    // INDEXING
+    // =========================
+    public void add(Question question) {
+        addAll(List.of(question));
+    }
+
+    // Signs newly saved questions, persists the signatures and indexes them
+    public void addAll(List<Question> questions) {
+        List<Object[]> rows = new ArrayList<>(questions.size());
+        for (Question q : questions) {
+            if (q.getId() == null || q.getContentHash() == null) {
+                continue;
+            }
+            int[] sig = MinHash.signature(q.getContent());
+            Long subjectId = q.getSubject().getId();
+            if (index(q.getId(), subjectId, AdaptiveLogicService.questionKey(q.getContentHash()), sig)) {
+                rows.add(new Object[] { q.getId(), subjectId, q.getContentHash(), MinHash.toBytes(sig) });
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbc.batchUpdate("""
+                    INSERT IGNORE INTO question_signatures (question_id, subject_id, content_hash, signature)
+                    VALUES (?, ?, ?, ?)
+                    """, rows);
+        }
+    }
+
+    public void forgetSubject(Long subjectId) {
+        subjects.remove(subjectId);
+    }
+
+    private boolean index(long questionId, long subjectId, long key, int[] sig) {
+        synchronized (indexed) {
+            if (indexed.containsKey(questionId)) {
+                return false;
+            }
+            indexed.put(questionId, 1);
+        }
+        subjects.computeIfAbsent(subjectId, id -> new SubjectIndex()).add(questionId, key, sig);
+        return true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        Thread loader = new Thread(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                int loaded = sync();
+                int signed = signUnsignedQuestions();
+                System.out.println("✅ Near-duplicate index: " + loaded + " signatures loaded, " + signed
+                        + " questions signed (" + (System.currentTimeMillis() - start) + " ms)");
+            } catch (Exception e) {
+                System.err.println("Near-duplicate index load failed: " + e.getMessage());
+            }
+        }, "near-duplicate-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    // Signatures written since the last sync, by this node or any other
+    @Scheduled(fixedDelayString = "${questions.dedup.sync-ms:60000}", initialDelayString = "${questions.dedup.sync-ms:60000}")
+    public synchronized int sync() {
+        long latest = jdbc.queryForObject("SELECT COALESCE(MAX(seq), 0) FROM question_signatures", Long.class);
+        // The startup load has no earlier sync to lag behind
+        long upTo = horizon < 0 ? latest : horizon;
+        int total = 0;
+        List<Object[]> page;
+        do {
+            page = jdbc.query("""
+                    SELECT seq, question_id, subject_id, content_hash, signature FROM question_signatures
+                    WHERE seq > ? AND seq <= ? ORDER BY seq LIMIT ?
+                    """, (rs, i) -> new Object[] {
+                    rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getString(4), rs.getBytes(5) },
+                    lastSeq, upTo, batchSize);
+            for (Object[] row : page) {
+                index((Long) row[1], (Long) row[2], AdaptiveLogicService.questionKey((String) row[3]),
+                        MinHash.fromBytes((byte[]) row[4]));
+                lastSeq = (Long) row[0];
+            }
+            total += page.size();
+        } while (page.size() == batchSize);
+        // Gaps below the horizon (rolled-back or ignored inserts) are not waited for
+        lastSeq = Math.max(lastSeq, upTo);
+        horizon = latest;
+        return total;
+    }
+
+    // Bank rows from before signatures existed (or from the seeder): signed once, in id order
+    private int signUnsignedQuestions() {
+        int total = 0;
+        long after = 0;
+        List<Object[]> page;
+        while (!(page = jdbc.query("""
+                SELECT q.id, q.subject_id, q.content_hash, q.content FROM questions q
+                LEFT JOIN question_signatures s ON s.question_id = q.id
+                WHERE s.question_id IS NULL AND q.content_hash IS NOT NULL AND q.id > ?
+                ORDER BY q.id LIMIT ?
+                """, (rs, i) -> new Object[] { rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4) },
+                after, batchSize)).isEmpty()) {
+            List<Object[]> rows = new ArrayList<>(page.size());
+            for (Object[] row : page) {
+                int[] sig = MinHash.signature((String) row[3]);
+                if (index((Long) row[0], (Long) row[1], AdaptiveLogicService.questionKey((String) row[2]), sig)) {
+                    rows.add(new Object[] { row[0], row[1], row[2], MinHash.toBytes(sig) });
+                }
+                after = (Long) row[0];
+            }
+            if (!rows.isEmpty()) {
+                jdbc.batchUpdate("""
+                        INSERT IGNORE INTO question_signatures (question_id, subject_id, content_hash, signature)
+                        VALUES (?, ?, ?, ?)
+                        """, rows);
+            }
+            total += rows.size();
+        }
+        return total;
+    }
+}
@@ -31,11 +31,16 @@ public class OpenAIService {
 
     private final RestTemplate restTemplate;
     private final com.quiz.AdaptiveQuiz.repository.QuestionRepository questionRepo;
+    private final QuestionSelectionService questionSelection;
+    private final NearDuplicateService nearDuplicates;
     private final ObjectMapper mapper = new ObjectMapper();
 
-    public OpenAIService(RestTemplate restTemplate, com.quiz.AdaptiveQuiz.repository.QuestionRepository questionRepo) {
+    public OpenAIService(RestTemplate restTemplate, com.quiz.AdaptiveQuiz.repository.QuestionRepository questionRepo,
+            QuestionSelectionService questionSelection, NearDuplicateService nearDuplicates) {
         this.restTemplate = restTemplate;
         this.questionRepo = questionRepo;
+        this.questionSelection = questionSelection;
+        this.nearDuplicates = nearDuplicates;
     }
 
     public AIQuestion generateQuestion(Subject subject, Difficulty difficulty) {
@@ -160,10 +165,30 @@ public class OpenAIService {
         q.setSubject(subject);
         q.setDifficulty(difficulty);
 
+        // A paraphrase of a bank question is not stored again; the bank question is
+        // served in its place, so the user's seen set and rating key refer to it
+        Long duplicateOf = nearDuplicates.findDuplicate(subject.getId(), q.getQuestion());
+        if (duplicateOf != null) {
+            System.out.println("Generated question is a near-duplicate of question " + duplicateOf
+                    + ", serving that one");
+            com.quiz.AdaptiveQuiz.entity.Question banked = questionRepo.findById(duplicateOf).orElse(null);
+            if (banked == null) {
+                return q; // deleted since it was indexed
+            }
+            AIQuestion original = new AIQuestion();
+            original.setQuestion(banked.getContent());
+            original.setOptions(banked.getOptions());
+            original.setCorrectAnswer(banked.getCorrectAnswer());
+            original.setSubject(subject);
+            original.setDifficulty(banked.getDifficulty());
+            return original;
+        }
+
         try {
-            com.quiz.AdaptiveQuiz.entity.Question dbQ = new com.quiz.AdaptiveQuiz.entity.Question(
-                    q.getQuestion(), q.getOptions(), q.getCorrectAnswer(), subject, difficulty);
-            questionRepo.save(dbQ);
+            com.quiz.AdaptiveQuiz.entity.Question dbQ = questionRepo.save(new com.quiz.AdaptiveQuiz.entity.Question(
+                    q.getQuestion(), q.getOptions(), q.getCorrectAnswer(), subject, difficulty));
+            questionSelection.questionAdded(dbQ);
+            nearDuplicates.add(dbQ);
             System.out.println("✅ Question Generated & Saved");
         } catch (Exception e) {
             System.err.println("Failed to save question to DB: " + e.getMessage());
@@ -0,0 +1,501 @@
+package com.quiz.AdaptiveQuiz.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.quiz.AdaptiveQuiz.dto.ImportErrorDTO;
+import com.quiz.AdaptiveQuiz.dto.ImportReportDTO;
+import com.quiz.AdaptiveQuiz.entity.Difficulty;
+import com.quiz.AdaptiveQuiz.entity.Question;
+import com.quiz.AdaptiveQuiz.entity.Subject;
+import com.quiz.AdaptiveQuiz.repository.SubjectRepository;
+import com.quiz.AdaptiveQuiz.util.ContentHash;
+import com.quiz.AdaptiveQuiz.util.CsvReader;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// Bulk question import/export. Both directions stream: import reads one record
+// at a time and inserts every batch in its own transaction, export pages through
+// questions by id, so memory stays flat however big the bank is.
+//
+// JSONL: {"subject":"JAVA","difficulty":"EASY","content":"...","options":["a","b","c","d"],"correctAnswer":"a"}
+// CSV:   subject,difficulty,content,option1,option2,option3,option4,correctAnswer (header required)
+@Service
+public class QuestionBankService {
+
+    public enum Format {
+        JSONL, CSV;
+
+        public static Format of(String format, String fileName) {
+            if (format != null && !format.isBlank()) {
+                try {
+                    return valueOf(format.trim().toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown format: " + format);
+                }
+            }
+            return fileName != null && fileName.toLowerCase(Locale.ROOT).endsWith(".csv") ? CSV : JSONL;
+        }
+    }
+
+    private static final String[] CSV_COLUMNS = {
+            "subject", "difficulty", "content", "option1", "option2", "option3", "option4", "correctAnswer"
+    };
+
+    private record Candidate(String hash, long subjectId, Difficulty difficulty,
+            String content, List<String> options, String correctAnswer) {
+    }
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ObjectMapper mapper;
+    private final SubjectRepository subjectRepo;
+    private final NearDuplicateService nearDuplicates;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    // One import at a time: batches dedup against what earlier batches committed
+    private final ReentrantLock importLock = new ReentrantLock();
+    private volatile Progress current;
+
+    @Value("${questions.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${questions.import.progress-every:10000}")
+    private int progressEvery;
+
+    @Value("${questions.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Value("${questions.export.page-size:1000}")
+    private int exportPageSize;
+
+    public QuestionBankService(JdbcTemplate jdbc,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper mapper,
+            SubjectRepository subjectRepo,
+            NearDuplicateService nearDuplicates) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.mapper = mapper;
+        this.subjectRepo = subjectRepo;
+        this.nearDuplicates = nearDuplicates;
+    }
+
+    // =========================
+    // IMPORT
+    // =========================
+    // Every rejected line goes to errorSink (may be null); the report keeps the first few
+    public ImportReportDTO importQuestions(InputStream input, Format format, Consumer<ImportErrorDTO> errorSink) {
+        if (!importLock.tryLock()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Another question import is running");
+        }
+        Progress progress = new Progress(errorSink);
+        current = progress;
+        try {
+            backfillContentHashes();
+            Map<String, Long> subjects = subjectIds();
+            List<Candidate> batch = new ArrayList<>(batchSize);
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            if (format == Format.CSV) {
+                readCsv(reader, subjects, batch, progress);
+            } else {
+                readJsonl(reader, subjects, batch, progress);
+            }
+            insertBatch(batch, progress);
+
+            progress.finished = true;
+            System.out.println("✅ Question import done: " + progress.summary());
+            return progress.snapshot();
+        } catch (IOException e) {
+            // Unreadable stream: stop here, keep what was committed and say where
+            progress.error(0, "Import aborted: " + e.getMessage());
+            progress.finished = true;
+            return progress.snapshot();
+        } finally {
+            importLock.unlock();
+        }
+    }
+
+    // Latest import (running or finished), for polling while a long upload is in progress
+    public ImportReportDTO currentImport() {
+        Progress p = current;
+        return p == null ? null : p.snapshot();
+    }
+
+    private void readJsonl(BufferedReader reader, Map<String, Long> subjects, List<Candidate> batch,
+            Progress progress) throws IOException {
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            progress.record();
+            try {
+                JsonNode node = mapper.readTree(line);
+                List<String> options = new ArrayList<>();
+                node.path("options").forEach(o -> options.add(o.asText()));
+                accept(validate(subjects, text(node, "subject"), text(node, "difficulty"),
+                        text(node, "content"), options, text(node, "correctAnswer")), batch, progress);
+            } catch (IOException e) {
+                progress.error(lineNumber, "Malformed JSON");
+            } catch (IllegalArgumentException e) {
+                progress.error(lineNumber, e.getMessage());
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader reader, Map<String, Long> subjects, List<Candidate> batch,
+            Progress progress) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        int[] column = new int[CSV_COLUMNS.length];
+        for (int c = 0; c < CSV_COLUMNS.length; c++) {
+            column[c] = indexOfIgnoreCase(header, CSV_COLUMNS[c]);
+            if (column[c] < 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "CSV header must contain: " + String.join(",", CSV_COLUMNS));
+            }
+        }
+
+        List<String> row;
+        while ((row = csv.next()) != null) {
+            progress.record();
+            try {
+                List<String> options = List.of(field(row, column[3]), field(row, column[4]),
+                        field(row, column[5]), field(row, column[6]));
+                accept(validate(subjects, field(row, column[0]), field(row, column[1]),
+                        field(row, column[2]), options, field(row, column[7])), batch, progress);
+            } catch (IllegalArgumentException e) {
+                progress.error(csv.recordLine(), e.getMessage());
+            }
+        }
+    }
+
+    // Throws IllegalArgumentException with the message that ends up in the error report
+    private Candidate validate(Map<String, Long> subjects, String subject, String difficulty,
+            String content, List<String> options, String correctAnswer) {
+        if (subject == null || subject.isBlank()) {
+            throw new IllegalArgumentException("Missing subject");
+        }
+        Long subjectId = subjects.get(subject.trim().toUpperCase(Locale.ROOT));
+        if (subjectId == null) {
+            throw new IllegalArgumentException("Unknown subject: " + subject.trim());
+        }
+        Difficulty level;
+        try {
+            level = Difficulty.valueOf(difficulty == null ? "" : difficulty.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Difficulty must be EASY, MEDIUM or HARD");
+        }
+        if (content == null || content.isBlank()) {
+            throw new IllegalArgumentException("Missing question content");
+        }
+        if (options.size() != 4) {
+            throw new IllegalArgumentException("Expected 4 options, got " + options.size());
+        }
+        List<String> trimmed = new ArrayList<>(4);
+        for (String o : options) {
+            if (o == null || o.isBlank()) {
+                throw new IllegalArgumentException("Options must not be blank");
+            }
+            trimmed.add(o.trim());
+        }
+        if (new HashSet<>(trimmed).size() != 4) {
+            throw new IllegalArgumentException("Options must be distinct");
+        }
+        String answer = correctAnswer == null ? "" : correctAnswer.trim();
+        if (!trimmed.contains(answer)) {
+            throw new IllegalArgumentException("Correct answer is not one of the options");
+        }
+        String text = content.trim();
+        return new Candidate(ContentHash.of(subjectId, text), subjectId, level, text, trimmed, answer);
+    }
+
+    private void accept(Candidate c, List<Candidate> batch, Progress progress) {
+        batch.add(c);
+        if (batch.size() >= batchSize) {
+            insertBatch(batch, progress);
+        }
+    }
+
+    // Dedups against the file so far (earlier batches are committed) and the bank
+    private void insertBatch(List<Candidate> batch, Progress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<String, Candidate> unique = new LinkedHashMap<>();
+        for (Candidate c : batch) {
+            unique.putIfAbsent(c.hash(), c);
+        }
+        Set<String> existing = existingHashes(unique.keySet());
+        List<Candidate> fresh = new ArrayList<>(unique.size());
+        for (Candidate c : unique.values()) {
+            if (!existing.contains(c.hash())) {
+                fresh.add(c);
+            }
+        }
+
+        List<Question> persisted = new ArrayList<>(fresh.size());
+        tx.executeWithoutResult(s -> {
+            for (Candidate c : fresh) {
+                Subject subject = em.getReference(Subject.class, c.subjectId());
+                Question q = new Question(c.content(), c.options(), c.correctAnswer(), subject, c.difficulty());
+                em.persist(q);
+                persisted.add(q);
+            }
+        });
+        // Imports are curated, so only exact duplicates are skipped; later generated
+        // paraphrases of these are caught though
+        nearDuplicates.addAll(persisted);
+
+        progress.inserted += fresh.size();
+        progress.duplicates += batch.size() - fresh.size();
+        batch.clear();
+    }
+
+    private Set<String> existingHashes(Set<String> hashes) {
+        if (hashes.isEmpty()) {
+            return Set.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(hashes.size(), "?"));
+        return new HashSet<>(jdbc.queryForList(
+                "SELECT content_hash FROM questions WHERE content_hash IN (" + placeholders + ")",
+                String.class, hashes.toArray()));
+    }
+
+    private Map<String, Long> subjectIds() {
+        Map<String, Long> ids = new HashMap<>();
+        for (Subject s : subjectRepo.findAll()) {
+            ids.put(s.getName().toUpperCase(Locale.ROOT), s.getId());
+        }
+        return ids;
+    }
+
+    // In the background, so a first deploy against a big bank doesn't hold up readiness
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        Thread backfill = new Thread(() -> {
+            try {
+                backfillContentHashes();
+            } catch (Exception e) {
+                System.err.println("Content hash backfill failed: " + e.getMessage());
+            }
+        }, "content-hash-backfill");
+        backfill.setDaemon(true);
+        backfill.start();
+    }
+
+    // Questions saved before content_hash existed; chunked so it never holds the table.
+    // Also run at the start of every import.
+    public void backfillContentHashes() {
+        int total = 0;
+        List<Object[]> rows;
+        while (!(rows = jdbc.query(
+                "SELECT id, subject_id, content FROM questions WHERE content_hash IS NULL LIMIT ?",
+                (rs, i) -> new Object[] { rs.getLong(1), rs.getLong(2), rs.getString(3) },
+                batchSize)).isEmpty()) {
+            jdbc.batchUpdate("UPDATE questions SET content_hash = ? WHERE id = ?", rows, rows.size(),
+                    (ps, row) -> {
+                        ps.setString(1, ContentHash.of((Long) row[1], (String) row[2]));
+                        ps.setLong(2, (Long) row[0]);
+                    });
+            total += rows.size();
+        }
+        if (total > 0) {
+            System.out.println("✅ Content hashes backfilled for " + total + " questions");
+        }
+    }
+
+    // =========================
+    // EXPORT
+    // =========================
+    // Same shape import reads, so an export can be re-imported (duplicates are skipped)
+    public void exportQuestions(OutputStream output, Format format, Long subjectId) throws IOException {
+        Writer out = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            out.write(String.join(",", CSV_COLUMNS));
+            out.write('\n');
+        }
+
+        long afterId = 0;
+        while (true) {
+            List<Object[]> page = subjectId == null
+                    ? jdbc.query("""
+                            SELECT q.id, s.name, q.difficulty, q.content, q.correct_answer
+                            FROM questions q JOIN subjects s ON s.id = q.subject_id
+                            WHERE q.id > ? ORDER BY q.id LIMIT ?
+                            """, this::exportRow, afterId, exportPageSize)
+                    : jdbc.query("""
+                            SELECT q.id, s.name, q.difficulty, q.content, q.correct_answer
+                            FROM questions q JOIN subjects s ON s.id = q.subject_id
+                            WHERE q.subject_id = ? AND q.id > ? ORDER BY q.id LIMIT ?
+                            """, this::exportRow, subjectId, afterId, exportPageSize);
+            if (page.isEmpty()) {
+                break;
+            }
+            Map<Long, List<String>> options = optionsFor(page);
+            for (Object[] row : page) {
+                List<String> opts = options.getOrDefault((Long) row[0], List.of());
+                if (format == Format.CSV) {
+                    writeCsv(out, row, opts);
+                } else {
+                    writeJson(out, row, opts);
+                }
+            }
+            afterId = (Long) page.get(page.size() - 1)[0];
+        }
+        out.flush();
+    }
+
+    private Object[] exportRow(java.sql.ResultSet rs, int i) throws java.sql.SQLException {
+        return new Object[] { rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5) };
+    }
+
+    // One query per page; rows come back in insertion order, which is the option order
+    private Map<Long, List<String>> optionsFor(List<Object[]> page) {
+        Map<Long, List<String>> options = new HashMap<>();
+        Object[] ids = page.stream().map(r -> r[0]).toArray();
+        String placeholders = String.join(",", Collections.nCopies(ids.length, "?"));
+        jdbc.query("SELECT question_id, option_text FROM question_options WHERE question_id IN (" + placeholders + ")",
+                rs -> {
+                    options.computeIfAbsent(rs.getLong(1), k -> new ArrayList<>(4)).add(rs.getString(2));
+                }, ids);
+        return options;
+    }
+
+    private void writeJson(Writer out, Object[] row, List<String> options) throws IOException {
+        ObjectNode node = mapper.createObjectNode();
+        node.put("subject", (String) row[1]);
+        node.put("difficulty", (String) row[2]);
+        node.put("content", (String) row[3]);
+        node.putArray("options").addAll(options.stream().map(node::textNode).toList());
+        node.put("correctAnswer", (String) row[4]);
+        out.write(mapper.writeValueAsString(node));
+        out.write('\n');
+    }
+
+    private void writeCsv(Writer out, Object[] row, List<String> options) throws IOException {
+        StringBuilder line = new StringBuilder();
+        line.append(escapeCsv((String) row[1])).append(',')
+                .append(escapeCsv((String) row[2])).append(',')
+                .append(escapeCsv((String) row[3]));
+        for (int i = 0; i < 4; i++) {
+            line.append(',').append(escapeCsv(i < options.size() ? options.get(i) : null));
+        }
+        line.append(',').append(escapeCsv((String) row[4])).append('\n');
+        out.write(line.toString());
+    }
+
+    private String escapeCsv(String data) {
+        if (data == null)
+            return "";
+        return "\"" + data.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static String field(List<String> row, int index) {
+        return index < row.size() ? row.get(index) : null;
+    }
+
+    private static int indexOfIgnoreCase(List<String> header, String name) {
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i).trim().equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Counters are written by the import thread only; the status endpoint reads a snapshot
+    private class Progress {
+        private final long start = System.currentTimeMillis();
+        private final Consumer<ImportErrorDTO> sink;
+        private final List<ImportErrorDTO> errors = Collections.synchronizedList(new ArrayList<>());
+        private volatile long records;
+        private volatile long inserted;
+        private volatile long duplicates;
+        private volatile long invalid;
+        private volatile boolean finished;
+
+        Progress(Consumer<ImportErrorDTO> sink) {
+            this.sink = sink;
+        }
+
+        void record() {
+            records++;
+            if (records % progressEvery == 0) {
+                System.out.println("Question import: " + summary());
+            }
+        }
+
+        void error(long line, String message) {
+            invalid++;
+            ImportErrorDTO error = new ImportErrorDTO(line, message);
+            if (errors.size() < maxReportedErrors) {
+                errors.add(error);
+            }
+            if (sink != null) {
+                sink.accept(error);
+            }
+        }
+
+        String summary() {
+            long elapsed = Math.max(1, System.currentTimeMillis() - start);
+            return String.format("%,d records, %,d inserted, %,d duplicates, %,d invalid (%,.0f records/s)",
+                    records, inserted, duplicates, invalid, records * 1000.0 / elapsed);
+        }
+
+        ImportReportDTO snapshot() {
+            List<ImportErrorDTO> reported;
+            synchronized (errors) {
+                reported = new ArrayList<>(errors);
+            }
+            return new ImportReportDTO(finished, records, inserted, duplicates, invalid,
+                    System.currentTimeMillis() - start, reported, invalid > reported.size());
+        }
+    }
+}
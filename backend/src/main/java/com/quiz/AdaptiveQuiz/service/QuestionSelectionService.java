@@ -0,0 +1,276 @@
+package com.quiz.AdaptiveQuiz.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.quiz.AdaptiveQuiz.config.QuestionBankCli;
+import com.quiz.AdaptiveQuiz.entity.Difficulty;
+import com.quiz.AdaptiveQuiz.entity.Question;
+import com.quiz.AdaptiveQuiz.util.LongIntHashMap;
+
+// Picks bank questions with Thompson sampling instead of ORDER BY RAND().
+//
+// Every (subject, difficulty) bucket of unflagged questions is held in memory
+// as parallel primitive arrays: id, content key, calibration counts
+// (answered / correct, see DifficultyCalibrationService) and how often this
+// node served it. A selection draws each candidate's correct rate from its
+// Beta posterior (prior centred on the bucket's label), turns it into a
+// question rating, and scores how close the user's chance of answering it is
+// to the target, minus an exposure penalty. Questions the user has seen are
+// skipped. Thin data means a wide posterior, so new questions get explored
+// until calibration pins them down.
+//
+// Questions generated on this node are appended to their bucket as they are
+// saved; the whole index is rebuilt in the background every few minutes and
+// after calibration runs, so imports and relabels show up too.
+@Service
+@Profile("!" + QuestionBankCli.PROFILE)
+public class QuestionSelectionService {
+
+    // Copy-on-write: a bucket is never changed once published, except served counts
+    private static final class Bucket {
+        private final long[] ids;
+        private final long[] keys;
+        private final int[] answered;
+        private final int[] correct;
+        private final AtomicIntegerArray served;
+        private final int size;
+
+        Bucket(long[] ids, long[] keys, int[] answered, int[] correct, AtomicIntegerArray served, int size) {
+            this.ids = ids;
+            this.keys = keys;
+            this.answered = answered;
+            this.correct = correct;
+            this.served = served;
+            this.size = size;
+        }
+    }
+
+    // Growable arrays for one bucket while the index is rebuilt
+    private static final class Builder {
+        private long[] ids = new long[64];
+        private long[] keys = new long[64];
+        private int[] answered = new int[64];
+        private int[] correct = new int[64];
+        private int size;
+
+        void add(long id, long key, int a, int c) {
+            if (size == ids.length) {
+                int cap = size << 1;
+                ids = Arrays.copyOf(ids, cap);
+                keys = Arrays.copyOf(keys, cap);
+                answered = Arrays.copyOf(answered, cap);
+                correct = Arrays.copyOf(correct, cap);
+            }
+            ids[size] = id;
+            keys[size] = key;
+            answered[size] = a;
+            correct[size] = c;
+            size++;
+        }
+
+        Bucket build(Bucket previous) {
+            // Keep this node's exposure counts across rebuilds
+            AtomicIntegerArray served = new AtomicIntegerArray(size);
+            if (previous != null) {
+                LongIntHashMap old = new LongIntHashMap(previous.size);
+                for (int i = 0; i < previous.size; i++) {
+                    old.put(previous.ids[i], previous.served.get(i));
+                }
+                for (int i = 0; i < size; i++) {
+                    served.set(i, old.get(ids[i], 0));
+                }
+            }
+            return new Bucket(ids, keys, answered, correct, served, size);
+        }
+    }
+
+    private final JdbcTemplate jdbc;
+    private final AdaptiveLogicService adaptiveLogic;
+
+    // (subjectId << 2 | difficulty ordinal) -> bucket; swapped whole on rebuild
+    private volatile Map<Long, Bucket> buckets = Map.of();
+
+    @Value("${bank.target-correct-rate:0.5}")
+    private double targetCorrectRate;
+
+    // Up to this much is taken off the score of a question served very often
+    @Value("${bank.exposure-weight:0.25}")
+    private double exposureWeight;
+
+    // Larger buckets are scored on a random window of this size
+    @Value("${bank.max-scan:512}")
+    private int maxScan;
+
+    public QuestionSelectionService(JdbcTemplate jdbc, AdaptiveLogicService adaptiveLogic) {
+        this.jdbc = jdbc;
+        this.adaptiveLogic = adaptiveLogic;
+    }
+
+    // =========================
+    // SELECTION
+    // =========================
+    // seenKeys: question keys (see AdaptiveLogicService.questionKey) the user already had.
+    // Returns null if the bucket has nothing to offer; with allowSeen, seen questions
+    // are served once no unseen one is left.
+    public Long select(Long userId, Long subjectId, Difficulty difficulty, LongIntHashMap seenKeys,
+            boolean allowSeen) {
+        Bucket bucket = buckets.get(bucketKey(subjectId, difficulty));
+        if (bucket == null || bucket.size == 0) {
+            return null;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int ability = adaptiveLogic.rating(userId, subjectId);
+
+        // Label prior worth 4 answers: EASY ~76% correct, MEDIUM 50%, HARD ~24%
+        double prior = AdaptiveLogicService.expected(AdaptiveLogicService.DEFAULT_RATING,
+                AdaptiveLogicService.initialRating(difficulty));
+        double priorCorrect = 4 * prior;
+        double priorWrong = 4 * (1 - prior);
+
+        int scan = Math.min(bucket.size, maxScan);
+        int offset = bucket.size > scan ? random.nextInt(bucket.size) : 0;
+        int best = -1;
+        int bestSeen = -1;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        double bestSeenScore = Double.NEGATIVE_INFINITY;
+        for (int n = 0; n < scan; n++) {
+            int i = (offset + n) % bucket.size;
+            double p = sampleBeta(random, bucket.correct[i] + priorCorrect,
+                    bucket.answered[i] - bucket.correct[i] + priorWrong);
+            int served = bucket.served.get(i);
+            double score = -Math.abs(AdaptiveLogicService.expected(ability, ratingFor(p)) - targetCorrectRate)
+                    - exposureWeight * served / (served + 20.0);
+
+            if (seenKeys != null && seenKeys.containsKey(bucket.keys[i])) {
+                if (score > bestSeenScore) {
+                    bestSeenScore = score;
+                    bestSeen = i;
+                }
+            } else if (score > bestScore) {
+                bestScore = score;
+                best = i;
+            }
+        }
+        int chosen = best >= 0 ? best : (allowSeen ? bestSeen : -1);
+        if (chosen < 0) {
+            return null;
+        }
+        bucket.served.incrementAndGet(chosen);
+        return bucket.ids[chosen];
+    }
+
+    // =========================
+    // INDEX
+    // =========================
+    // A newly generated question is servable right away
+    public void questionAdded(Question question) {
+        if (question.getId() == null || question.getContentHash() == null) {
+            return;
+        }
+        long key = bucketKey(question.getSubject().getId(), question.getDifficulty());
+        synchronized (this) {
+            Bucket old = buckets.get(key);
+            Builder b = new Builder();
+            if (old != null) {
+                for (int i = 0; i < old.size; i++) {
+                    b.add(old.ids[i], old.keys[i], old.answered[i], old.correct[i]);
+                }
+            }
+            b.add(question.getId(), AdaptiveLogicService.questionKey(question.getContentHash()), 0, 0);
+            Map<Long, Bucket> next = new HashMap<>(buckets);
+            next.put(key, b.build(old));
+            buckets = next;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        Thread loader = new Thread(this::rebuild, "question-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    @Scheduled(fixedDelayString = "${bank.rebuild-ms:600000}", initialDelayString = "${bank.rebuild-ms:600000}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            Map<Long, Builder> builders = new HashMap<>();
+            int[] count = { 0 };
+            jdbc.query("""
+                    SELECT id, subject_id, difficulty, content_hash, answered_count, correct_count
+                    FROM questions WHERE calibration_flag IS NULL AND content_hash IS NOT NULL
+                    """, rs -> {
+                long key = bucketKey(rs.getLong(2), Difficulty.valueOf(rs.getString(3)));
+                builders.computeIfAbsent(key, k -> new Builder())
+                        .add(rs.getLong(1), AdaptiveLogicService.questionKey(rs.getString(4)),
+                                rs.getInt(5), rs.getInt(6));
+                count[0]++;
+            });
+
+            synchronized (this) {
+                Map<Long, Bucket> old = buckets;
+                Map<Long, Bucket> next = new HashMap<>();
+                builders.forEach((key, b) -> next.put(key, b.build(old.get(key))));
+                buckets = next;
+            }
+            System.out.println("✅ Question index: " + count[0] + " questions in " + builders.size()
+                    + " buckets (" + (System.currentTimeMillis() - start) + " ms)");
+        } catch (Exception e) {
+            // Keep serving from the previous index
+            System.err.println("Question index rebuild failed: " + e.getMessage());
+        }
+    }
+
+    // =========================
+    // SAMPLING
+    // =========================
+    // Rating of a question that a DEFAULT_RATING player answers right with chance p
+    private static int ratingFor(double p) {
+        double clamped = Math.max(0.02, Math.min(0.98, p));
+        return (int) Math.round(AdaptiveLogicService.DEFAULT_RATING - 400 * Math.log10(clamped / (1 - clamped)));
+    }
+
+    private static double sampleBeta(ThreadLocalRandom random, double a, double b) {
+        double x = sampleGamma(random, a);
+        double y = sampleGamma(random, b);
+        return x / (x + y);
+    }
+
+    // Marsaglia & Tsang; shapes below 1 are boosted by one and scaled back
+    private static double sampleGamma(ThreadLocalRandom random, double shape) {
+        if (shape < 1) {
+            return sampleGamma(random, shape + 1) * Math.pow(random.nextDouble(), 1 / shape);
+        }
+        double d = shape - 1.0 / 3;
+        double c = 1 / Math.sqrt(9 * d);
+        while (true) {
+            double x;
+            double v;
+            do {
+                x = random.nextGaussian();
+                v = 1 + c * x;
+            } while (v <= 0);
+            v = v * v * v;
+            double u = random.nextDouble();
+            if (u < 1 - 0.0331 * x * x * x * x || Math.log(u) < 0.5 * x * x + d * (1 - v + Math.log(v))) {
+                return d * v;
+            }
+        }
+    }
+
+    private static long bucketKey(long subjectId, Difficulty difficulty) {
+        return (subjectId << 2) | difficulty.ordinal();
+    }
+}
@@ -8,7 +8,6 @@ import org.springframework.transaction.annotation.Transactional;
 import com.quiz.AdaptiveQuiz.dto.QuizResultResponse;
 import com.quiz.AdaptiveQuiz.entity.*;
 import com.quiz.AdaptiveQuiz.repository.*;
-import com.quiz.AdaptiveQuiz.repository.SubjectRepository;
 
 @Service
 public class QuizService {
@@ -18,9 +17,25 @@ public class QuizService {
         private final UserRepository userRepo;
         private final OpenAIService openAIService;
         private final com.quiz.AdaptiveQuiz.repository.SkillSnapshotRepository skillRepo;
-        private final SubjectRepository subjectRepo;
+        private final SubjectRegistryService subjectRegistry;
         private final com.quiz.AdaptiveQuiz.repository.QuestionRepository questionRepo; // Ensure this is available
         private final AdaptiveLogicService adaptiveLogicService;
+        private final AnalyticsRollupService rollupService;
+        private final AnalyticsTimeSeriesService timeSeriesService;
+        private final WeeklyLeaderboardService weeklyLeaderboard;
+        private final AnswerLogService answerLog;
+        private final QuizTimerService quizTimer;
+        private final QuestionSelectionService questionSelection;
+        private final NearDuplicateService nearDuplicates;
+        private final ResourceVersionService resourceVersions;
+
+        // Serve from the bank whenever it has an unseen question; the LLM only tops it up
+        @org.springframework.beans.factory.annotation.Value("${bank.serve-first:true}")
+        private boolean bankFirst;
+
+        // First questions of starting quizzes. No queue: when every thread is busy
+        // the request fetches its own question, i.e. the old sequential path.
+        private final java.util.concurrent.ExecutorService firstQuestions;
 
         public QuizService(
                         QuizAttemptRepository attemptRepo,
@@ -28,29 +43,107 @@ public class QuizService {
                         UserRepository userRepo,
                         OpenAIService openAIService,
                         com.quiz.AdaptiveQuiz.repository.SkillSnapshotRepository skillRepo,
-                        SubjectRepository subjectRepo,
+                        SubjectRegistryService subjectRegistry,
                         com.quiz.AdaptiveQuiz.repository.QuestionRepository questionRepo,
-                        AdaptiveLogicService adaptiveLogicService) {
+                        AdaptiveLogicService adaptiveLogicService,
+                        AnalyticsRollupService rollupService,
+                        AnalyticsTimeSeriesService timeSeriesService,
+                        WeeklyLeaderboardService weeklyLeaderboard,
+                        AnswerLogService answerLog,
+                        QuizTimerService quizTimer,
+                        QuestionSelectionService questionSelection,
+                        NearDuplicateService nearDuplicates,
+                        ResourceVersionService resourceVersions,
+                        @org.springframework.beans.factory.annotation.Value("${quiz.start.question-threads:32}") int firstQuestionThreads) {
 
                 this.attemptRepo = attemptRepo;
                 this.responseRepo = responseRepo;
                 this.userRepo = userRepo;
                 this.openAIService = openAIService;
                 this.skillRepo = skillRepo;
-                this.subjectRepo = subjectRepo;
+                this.subjectRegistry = subjectRegistry;
                 this.questionRepo = questionRepo;
                 this.adaptiveLogicService = adaptiveLogicService;
+                this.rollupService = rollupService;
+                this.timeSeriesService = timeSeriesService;
+                this.weeklyLeaderboard = weeklyLeaderboard;
+                this.answerLog = answerLog;
+                this.quizTimer = quizTimer;
+                this.questionSelection = questionSelection;
+                this.nearDuplicates = nearDuplicates;
+                this.resourceVersions = resourceVersions;
+                java.util.concurrent.atomic.AtomicInteger threadNo = new java.util.concurrent.atomic.AtomicInteger();
+                this.firstQuestions = new java.util.concurrent.ThreadPoolExecutor(0, firstQuestionThreads,
+                                60, java.util.concurrent.TimeUnit.SECONDS,
+                                new java.util.concurrent.SynchronousQueue<>(), r -> {
+                                        Thread t = new Thread(r, "first-question-" + threadNo.incrementAndGet());
+                                        t.setDaemon(true);
+                                        return t;
+                                }, new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
         }
 
         // ================= START QUIZ =================
-        public QuizAttempt startQuizByUserId(Long userId, String subjectName) {
-
+        // The first question needs only the user, subject and level, not the attempt
+        // row, so it is fetched on another thread while the attempt is inserted:
+        // time to first question is the slower of the two rather than their sum.
+        // If the insert fails the question fetch is cancelled. If the fetch fails the
+        // attempt is already in, so it is ended unscored (nobody could have answered
+        // it) and dropped from the timer and the answer log. Either way the error
+        // propagates.
+        public StartedQuiz startQuiz(Long userId, String subjectName) {
                 User user = userRepo.findById(userId)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-                Subject subject = subjectRepo.findByName(subjectName)
+                Subject subject = subjectRegistry.findByName(subjectName)
                                 .orElseThrow(() -> new RuntimeException("Subject not found: " + subjectName));
 
+                // Start at the level that matches the user's current rating in this subject
+                adaptiveLogicService.loadRating(user.getId(), subject.getId());
+                Difficulty difficulty = adaptiveLogicService.difficultyFor(user.getId(), subject.getId());
+
+                java.util.concurrent.Future<AIQuestion> first = firstQuestions.submit(
+                                () -> nextQuestion(user.getId(), subject, difficulty,
+                                                responseRepo.findDistinctQuestionTextByUserAndSubject(
+                                                                user.getId(), subject.getId())));
+                QuizAttempt attempt;
+                try {
+                        attempt = createAttempt(user, subject, difficulty);
+                } catch (RuntimeException e) {
+                        first.cancel(true);
+                        throw e;
+                }
+
+                try {
+                        return new StartedQuiz(attempt, first.get());
+                } catch (InterruptedException e) {
+                        first.cancel(true);
+                        abandonAttempt(attempt);
+                        Thread.currentThread().interrupt();
+                        throw new RuntimeException("Interrupted while fetching the first question");
+                } catch (java.util.concurrent.ExecutionException e) {
+                        abandonAttempt(attempt);
+                        Throwable cause = e.getCause();
+                        throw cause instanceof RuntimeException re ? re : new RuntimeException(cause);
+                }
+        }
+
+        // The user never saw a question: end the attempt without scoring it, so it
+        // is neither left open nor picked up by the expiry job later
+        private void abandonAttempt(QuizAttempt attempt) {
+                Long attemptId = attempt.getAttemptId();
+                try {
+                        attemptRepo.markEnded(attemptId, java.time.LocalDateTime.now());
+                } catch (RuntimeException e) {
+                        System.err.println("Ending attempt " + attemptId + " failed: " + e.getMessage());
+                }
+                answerLog.forget(attemptId);
+                quizTimer.attemptFinished(attemptId);
+        }
+
+        public record StartedQuiz(QuizAttempt attempt, AIQuestion firstQuestion) {
+        }
+
+        private QuizAttempt createAttempt(User user, Subject subject, Difficulty difficulty) {
                 QuizAttempt attempt = new QuizAttempt();
                 attempt.setUser(user);
                 attempt.setSubject(subject);
@@ -61,31 +154,59 @@ public class QuizService {
                 attempt.setSkippedAnswers(0);
                 attempt.setAccuracy(0);
                 attempt.setStartTime(java.time.LocalDateTime.now());
+                attempt.setCurrentDifficulty(difficulty);
+
+                QuizAttempt saved = attemptRepo.save(attempt);
+                rollupService.recordAttemptStarted(user.getId(), subject.getId());
+                timeSeriesService.recordAttemptStarted(subject.getId(), saved.getCurrentDifficulty());
+                weeklyLeaderboard.recordAttemptStarted(saved.getAttemptId(), user.getId(), user.getName(),
+                                saved.getStartTime());
+                answerLog.attemptStarted(saved.getAttemptId(), saved.getStartTime());
+                quizTimer.attemptStarted(saved.getAttemptId(), saved.getStartTime());
+                return saved;
+        }
 
-                // ✅ THIS IS THE MISSING LINE
-                attempt.setCurrentDifficulty(Difficulty.MEDIUM);
-
-                return attemptRepo.save(attempt);
+        @jakarta.annotation.PreDestroy
+        public void shutdown() {
+                firstQuestions.shutdownNow();
         }
 
-        // ================= FIRST QUESTION =================
-        public AIQuestion getFirstQuestion(String subjectName) {
-                Subject subject = subjectRepo.findByName(subjectName)
-                                .orElseThrow(() -> new RuntimeException("Subject not found: " + subjectName));
+        // Best unseen bank question for the user at the attempt's difficulty, or null.
+        // A pick that paraphrases one the user had counts as seen, and we pick again.
+        private AIQuestion fromBank(Long userId, Subject subject, Difficulty difficulty,
+                        com.quiz.AdaptiveQuiz.util.LongIntHashMap seen) {
+                Long subjectId = subject.getId();
+                for (int i = 0; i < 3; i++) {
+                        Long id = questionSelection.select(userId, subjectId, difficulty, seen, false);
+                        com.quiz.AdaptiveQuiz.entity.Question dbQ = id != null
+                                        ? questionRepo.findById(id).orElse(null)
+                                        : null;
+                        if (dbQ == null) {
+                                return null;
+                        }
+                        if (!nearDuplicates.similarToSeen(subjectId, dbQ.getContent(), seen)) {
+                                return toAIQuestion(dbQ, subject);
+                        }
+                        seen.put(AdaptiveLogicService.questionKey(subjectId, dbQ.getContent()), 1);
+                }
+                return null;
+        }
 
-                try {
-                        return openAIService.generateQuestion(
-                                        subject,
-                                        Difficulty.MEDIUM);
-                } catch (Exception e) {
-                        System.err.println("Fallback to Local DB: " + e.getMessage());
-                        return getFallbackQuestion(subject, Difficulty.MEDIUM);
+        private static com.quiz.AdaptiveQuiz.util.LongIntHashMap seenKeys(Long subjectId, List<String> questionTexts) {
+                com.quiz.AdaptiveQuiz.util.LongIntHashMap seen = new com.quiz.AdaptiveQuiz.util.LongIntHashMap(
+                                questionTexts.size());
+                for (String text : questionTexts) {
+                        seen.put(AdaptiveLogicService.questionKey(subjectId, text), 1);
                 }
+                return seen;
         }
 
-        private AIQuestion getFallbackQuestion(Subject subject, Difficulty difficulty) {
-                com.quiz.AdaptiveQuiz.entity.Question dbQ = ((com.quiz.AdaptiveQuiz.repository.QuestionRepository) questionRepo)
-                                .findRandomBySubjectAndDifficulty(subject, difficulty);
+        // Last resort: the best bank question even if the user has seen it, else any in the subject
+        private AIQuestion getFallbackQuestion(Long userId, Subject subject, Difficulty difficulty) {
+                Long pickedId = questionSelection.select(userId, subject.getId(), difficulty, null, true);
+                com.quiz.AdaptiveQuiz.entity.Question dbQ = pickedId != null
+                                ? questionRepo.findById(pickedId).orElse(null)
+                                : null;
 
                 if (dbQ == null) {
                         // Relax difficulty constraint
@@ -96,8 +217,11 @@ public class QuizService {
                 if (dbQ == null) {
                         throw new RuntimeException("No questions available for subject: " + subject.getName());
                 }
+                return toAIQuestion(dbQ, subject);
+        }
 
-                // Map DB Entity back to AIQuestion DTO for frontend consistency
+        // Map DB Entity back to AIQuestion DTO for frontend consistency
+        private static AIQuestion toAIQuestion(com.quiz.AdaptiveQuiz.entity.Question dbQ, Subject subject) {
                 AIQuestion aiQ = new AIQuestion();
                 aiQ.setQuestion(dbQ.getContent());
                 aiQ.setOptions(dbQ.getOptions());
@@ -115,19 +239,25 @@ public class QuizService {
                         String selectedAnswer,
                         String correctAnswer) {
 
-                QuizAttempt attempt = attemptRepo.findById(attemptId).orElseThrow();
+                QuizAttempt attempt = attemptRepo.findByIdForUpdate(attemptId).orElseThrow();
+
+                // Finished already (by the client, or auto-finished when time ran out)
+                if (attempt.getEndTime() != null) {
+                        return new com.quiz.AdaptiveQuiz.dto.SubmissionResponse(true, "Quiz Completed");
+                }
 
                 // Idempotency Check: Prevent duplicate submissions (Time-based: 2 seconds)
-                UserResponse lastResponse = responseRepo.findTopByAttemptOrderByIdDesc(attempt);
-                if (lastResponse != null) {
-                        java.time.Duration diff = java.time.Duration.between(lastResponse.getCreatedAt(),
-                                        java.time.LocalDateTime.now());
+                // Last answer comes from the answer log, so this needs no DB read
+                AnswerLogService.LastAnswer lastResponse = answerLog.lastAnswer(attempt);
+                java.time.LocalDateTime now = java.time.LocalDateTime.now();
+                if (lastResponse.questionText() != null) {
+                        java.time.Duration diff = java.time.Duration.between(lastResponse.createdAt(), now);
                         if (diff.toSeconds() < 2) {
                                 System.out.println("Duplicate submission detected (Too fast). Ignoring.");
                                 return new com.quiz.AdaptiveQuiz.dto.SubmissionResponse(false, "Duplicate Ignored");
                         }
                         // Also check strict text duplicate if it's the EXACT same question text
-                        if (lastResponse.getQuestionText().trim().equalsIgnoreCase(questionText.trim())) {
+                        if (lastResponse.questionText().trim().equalsIgnoreCase(questionText.trim())) {
                                 System.out.println("Duplicate Question Submission (Same Text). Ignoring.");
                                 return new com.quiz.AdaptiveQuiz.dto.SubmissionResponse(false, "Duplicate Ignored");
                         }
@@ -136,48 +266,65 @@ public class QuizService {
                 boolean isSkipped = selectedAnswer == null || selectedAnswer.trim().isEmpty();
                 boolean isCorrect = !isSkipped && selectedAnswer.equals(correctAnswer);
 
-                // User ka response save karo
-                UserResponse response = new UserResponse();
-                response.setAttempt(attempt);
-
-                // Safety defaults
-                response.setQuestionText(questionText != null ? questionText : "Unknown Question");
-                response.setSelectedAnswer(isSkipped ? "SKIPPED" : selectedAnswer);
-                response.setCorrectAnswer(correctAnswer != null ? correctAnswer : "Unknown");
-                response.setDifficulty(attempt.getCurrentDifficulty());
-                response.setCorrect(isCorrect);
-
-                responseRepo.save(response);
+                // User ka response: appended to the answer log, written to user_response in batches
+                AnswerLogService.Entry response = new AnswerLogService.Entry(
+                                java.util.UUID.randomUUID().toString(),
+                                attempt.getAttemptId(),
+                                attempt.getAnswerSeq() + 1,
+                                // Safety defaults
+                                questionText != null ? questionText : "Unknown Question",
+                                isSkipped ? "SKIPPED" : selectedAnswer,
+                                correctAnswer != null ? correctAnswer : "Unknown",
+                                attempt.getCurrentDifficulty(),
+                                isCorrect,
+                                now);
+
+                // Time since the previous answer (or quiz start) for the response-time series
+                java.time.LocalDateTime answeredSince = lastResponse.createdAt();
+                long responseTimeMs = answeredSince != null
+                                ? java.time.Duration.between(answeredSince, now).toMillis()
+                                : -1;
+                timeSeriesService.recordAnswer(attempt.getSubject().getId(), response.difficulty(),
+                                isCorrect, isSkipped, responseTimeMs);
 
                 // Score update
-                // Score update & Adaptive Logic
+                // Score update & Adaptive Logic: online rating update of user and question,
+                // in memory; the next level is the one nearest the user's new rating
                 Difficulty current = attempt.getCurrentDifficulty();
                 Difficulty next = current;
 
                 if (isCorrect) {
                         attempt.setCorrectAnswers(attempt.getCorrectAnswers() + 1);
-                        next = adaptiveLogicService.nextDifficulty(current, true);
+                        next = adaptiveLogicService.recordAnswer(attempt.getUser().getId(),
+                                        attempt.getSubject().getId(), response.questionText(), current, true);
                 } else {
                         if (isSkipped) {
                                 attempt.setSkippedAnswers(attempt.getSkippedAnswers() + 1);
                                 next = current; // No change for skipped
                         } else {
                                 attempt.setWrongAnswers(attempt.getWrongAnswers() + 1);
-                                next = adaptiveLogicService.nextDifficulty(current, false);
+                                next = adaptiveLogicService.recordAnswer(attempt.getUser().getId(),
+                                                attempt.getSubject().getId(), response.questionText(), current, false);
                         }
                 }
 
                 attempt.setCurrentDifficulty(next);
+                attempt.setAnswerSeq(response.seq());
                 attemptRepo.save(attempt);
 
+                // Durable before the ack; flushed to user_response only if this transaction commits
+                answerLog.append(response);
+
                 int attempted = attempt.getCorrectAnswers()
                                 + attempt.getWrongAnswers()
                                 + attempt.getSkippedAnswers();
 
                 // Quiz complete
                 if (attempted >= attempt.getTotalQuestions()) {
+                        attempt.setEndTime(now);
                         calculateAccuracy(attempt);
                         saveSkillSnapshot(attempt);
+                        afterFinishCommit(attempt.getAttemptId());
                         return new com.quiz.AdaptiveQuiz.dto.SubmissionResponse(true, "Quiz Completed");
                 }
 
@@ -195,28 +342,49 @@ public class QuizService {
                 }
 
                 // Fetch FULL history to avoid duplicates across all attempts
-                List<String> previousQuestions = responseRepo.findDistinctQuestionTextByUserAndSubject(
-                                attempt.getUser().getId(),
-                                attempt.getSubject().getId());
+                List<String> previousQuestions = new java.util.ArrayList<>(
+                                responseRepo.findDistinctQuestionTextByUserAndSubject(
+                                                attempt.getUser().getId(),
+                                                attempt.getSubject().getId()));
+
+                // Plus this attempt's answers that are not flushed yet
+                previousQuestions.addAll(answerLog.pendingQuestionTexts(attemptId));
+                return nextQuestion(attempt.getUser().getId(), attempt.getSubject(),
+                                attempt.getCurrentDifficulty(), previousQuestions);
+        }
+
+        // Bank first, then the LLM (retried on repeats of, or paraphrases of, what
+        // the user already had), then any bank question. Used for the first question too.
+        private AIQuestion nextQuestion(Long userId, Subject subject, Difficulty difficulty,
+                        List<String> previousQuestions) {
+                com.quiz.AdaptiveQuiz.util.LongIntHashMap seen = seenKeys(subject.getId(), previousQuestions);
+
+                if (bankFirst) {
+                        AIQuestion banked = fromBank(userId, subject, difficulty, seen);
+                        if (banked != null) {
+                                return banked;
+                        }
+                }
 
                 // Normalize for comparison
-                previousQuestions = previousQuestions.stream()
+                List<String> normalized = previousQuestions.stream()
                                 .map(String::trim)
                                 .map(String::toLowerCase)
                                 .collect(java.util.stream.Collectors.toList());
 
                 for (int i = 0; i < 3; i++) { // Try 3 times (reduced from 5 to avoid rate limits)
                         try {
-                                AIQuestion question = openAIService.generateQuestion(
-                                                attempt.getSubject(),
-                                                attempt.getCurrentDifficulty());
+                                AIQuestion question = openAIService.generateQuestion(subject, difficulty);
 
                                 if (question == null)
                                         continue;
 
                                 String newQuestionText = question.getQuestion().trim().toLowerCase();
-                                boolean isDuplicate = previousQuestions.stream()
-                                                .anyMatch(prev -> prev.equals(newQuestionText));
+                                // Exact repeats, or a paraphrase of a question the user already had
+                                boolean isDuplicate = normalized.stream()
+                                                .anyMatch(prev -> prev.equals(newQuestionText))
+                                                || nearDuplicates.similarToSeen(subject.getId(),
+                                                                question.getQuestion(), seen);
 
                                 if (!isDuplicate) {
                                         return question;
@@ -229,15 +397,30 @@ public class QuizService {
                 }
 
                 System.out.println("⚠️ OpenAI failed or duplicate. Fetching fallback from DB.");
-                return getFallbackQuestion(attempt.getSubject(), attempt.getCurrentDifficulty());
+                return getFallbackQuestion(userId, subject, difficulty);
         }
 
         private void saveSkillSnapshot(QuizAttempt attempt) {
                 adaptiveLogicService.saveSkillSnapshot(
                                 attempt.getUser(),
-                                attempt.getSubject(),
-                                attempt.getCorrectAnswers(),
-                                attempt.getTotalQuestions());
+                                attempt.getSubject());
+        }
+
+        // The review / dashboards read user_response, so push this attempt's answers
+        // out once the finishing transaction has committed (flushing inside it would
+        // wait on our own lock on the quiz_attempt row), then end the timer stream.
+        // The new skill snapshot and attempt count change the leaderboard.
+        private void afterFinishCommit(Long attemptId) {
+                org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization(
+                                new org.springframework.transaction.support.TransactionSynchronization() {
+                                        @Override
+                                        public void afterCommit() {
+                                                answerLog.flush();
+                                                answerLog.forget(attemptId);
+                                                quizTimer.attemptFinished(attemptId);
+                                                resourceVersions.bump(ResourceVersionService.LEADERBOARD);
+                                        }
+                                });
         }
 
         // ================= ACCURACY =================
@@ -246,8 +429,14 @@ public class QuizService {
                 double accuracy = (attempt.getCorrectAnswers() * 100.0)
                                 / attempt.getTotalQuestions();
 
+                // Only the change is applied, so re-finishing an attempt does not double count
+                double previous = attempt.getAccuracy();
                 attempt.setAccuracy(accuracy);
                 attemptRepo.save(attempt);
+                rollupService.recordAccuracyChange(attempt.getUser().getId(), attempt.getSubject().getId(),
+                                accuracy - previous);
+                weeklyLeaderboard.recordAccuracyChange(attempt.getAttemptId(), attempt.getUser().getId(),
+                                attempt.getStartTime(), accuracy, accuracy - previous);
         }
 
         // ================= RESULT =================
@@ -261,33 +450,50 @@ public class QuizService {
                                 attempt.getCorrectAnswers(),
                                 attempt.getWrongAnswers(),
                                 attempt.getSkippedAnswers(),
-                                attempt.getAccuracy());
+                                attempt.getAccuracy(),
+                                attempt.getEndTime());
+        }
+
+        // null while the attempt is running
+        public java.time.LocalDateTime getFinishedAt(Long attemptId) {
+                List<java.time.LocalDateTime> endTime = attemptRepo.findEndTime(attemptId);
+                if (endTime.isEmpty()) {
+                        throw new RuntimeException("Attempt not found");
+                }
+                return endTime.get(0);
         }
 
         // ================= REVIEW =================
-        public List<UserResponse> getReview(Long attemptId) {
-                QuizAttempt attempt = attemptRepo.findById(attemptId).orElseThrow();
-                return responseRepo.findByAttempt(attempt);
+        public List<com.quiz.AdaptiveQuiz.dto.ReviewDTO> getReview(Long attemptId) {
+                if (!attemptRepo.existsById(attemptId)) {
+                        throw new RuntimeException("Attempt not found");
+                }
+                return responseRepo.findReviewByAttemptId(attemptId);
         }
 
+        // Served from the in-memory deadline; the DB is only read for unknown attempts
         public java.util.Map<String, Object> getQuizStatus(Long attemptId) {
-                QuizAttempt attempt = attemptRepo.findById(attemptId)
-                                .orElseThrow(() -> new RuntimeException("Attempt not found"));
-
-                long elapsed = java.time.Duration.between(attempt.getStartTime(), java.time.LocalDateTime.now())
-                                .toSeconds();
-                long remaining = 900 - elapsed; // 15 minutes = 900 seconds
-
-                if (remaining < 0)
-                        remaining = 0;
+                long deadline = quizTimer.deadlineMs(attemptId);
+                java.time.LocalDateTime startTime = java.time.LocalDateTime.ofInstant(
+                                java.time.Instant.ofEpochMilli(deadline - QuizTimerService.QUIZ_SECONDS * 1000),
+                                java.time.ZoneId.systemDefault());
 
                 return java.util.Map.of(
-                                "startTime", attempt.getStartTime().toString(),
-                                "remainingSeconds", remaining);
+                                "startTime", startTime.toString(),
+                                "remainingSeconds", quizTimer.remainingSeconds(attemptId));
         }
 
+        // Client /finish and the expiry sweep both land here, possibly at the same time
+        // on different nodes; the conditional UPDATE lets exactly one of them finish.
+        // Returns false if the attempt was already finished.
         @Transactional
-        public void finishQuiz(Long attemptId) {
+        public boolean finishQuiz(Long attemptId) {
+                if (attemptRepo.markEnded(attemptId, java.time.LocalDateTime.now()) == 0) {
+                        if (!attemptRepo.existsById(attemptId)) {
+                                throw new RuntimeException("Attempt not found");
+                        }
+                        return false;
+                }
                 QuizAttempt attempt = attemptRepo.findById(attemptId)
                                 .orElseThrow(() -> new RuntimeException("Attempt not found"));
 
@@ -301,9 +507,9 @@ public class QuizService {
                 // Finalize logic
                 calculateAccuracy(attempt);
                 saveSkillSnapshot(attempt);
+                afterFinishCommit(attemptId);
 
-                // Mark as finished if we had an endTime field, but currently we rely on total
-                // questions being accounted for.
                 attemptRepo.save(attempt);
+                return true;
         }
 }
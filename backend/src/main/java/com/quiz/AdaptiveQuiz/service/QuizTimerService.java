@@ -0,0 +1,246 @@
+package com.quiz.AdaptiveQuiz.service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.quiz.AdaptiveQuiz.repository.QuizAttemptRepository;
+import com.quiz.AdaptiveQuiz.util.HashedWheelTimer;
+
+import jakarta.annotation.PreDestroy;
+
+// Quiz countdown pushed over SSE. Deadlines (start + 15 min) are kept in memory
+// from the moment an attempt starts, so neither the stream nor /status reads the
+// DB for a known attempt. Every attempt with listeners has one timeout on a
+// shared timing wheel that pushes a tick and re-arms itself; at the deadline it
+// pushes "expired" and closes the streams. Sends happen on a small pool so a
+// slow client never holds up the wheel.
+//
+// The same wheel also holds one expiry timeout per attempt started on this node;
+// when it fires the attempt is queued for AttemptExpiryService to finish.
+@Service
+public class QuizTimerService {
+
+    public static final long QUIZ_SECONDS = 900; // 15 minutes
+
+    private final class Channel {
+        private final Long attemptId;
+        private final long deadlineMs;
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private volatile HashedWheelTimer.Timeout next;
+
+        Channel(Long attemptId, long deadlineMs) {
+            this.attemptId = attemptId;
+            this.deadlineMs = deadlineMs;
+        }
+    }
+
+    private final QuizAttemptRepository attemptRepo;
+    private final HashedWheelTimer wheel;
+    private final ExecutorService pushers = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "quiz-timer-push");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // attemptId -> deadline (epoch ms) of attempts still running
+    private final Map<Long, Long> deadlines = new ConcurrentHashMap<>();
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final Map<Long, HashedWheelTimer.Timeout> expiryTimeouts = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Long> expired = new ConcurrentLinkedQueue<>();
+
+    @Value("${quiz.timer.push-ms:1000}")
+    private long pushMs;
+
+    @Value("${quiz.expiry.grace-seconds:30}")
+    private int graceSeconds;
+
+    public QuizTimerService(QuizAttemptRepository attemptRepo, HashedWheelTimer quizWheel) {
+        this.attemptRepo = attemptRepo;
+        this.wheel = quizWheel;
+    }
+
+    // =========================
+    // ATTEMPT LIFECYCLE
+    // =========================
+    public void attemptStarted(Long attemptId, LocalDateTime startTime) {
+        long deadline = toEpochMs(startTime) + QUIZ_SECONDS * 1000;
+        deadlines.put(attemptId, deadline);
+
+        // A little slack so a last answer sent right at 0:00 still counts
+        long dueInMs = deadline - System.currentTimeMillis() + graceSeconds * 1000L;
+        expiryTimeouts.put(attemptId, wheel.schedule(() -> {
+            expiryTimeouts.remove(attemptId);
+            expired.add(attemptId);
+        }, dueInMs, TimeUnit.MILLISECONDS));
+    }
+
+    // Completed or finished: tell listeners and stop tracking
+    public void attemptFinished(Long attemptId) {
+        deadlines.remove(attemptId);
+        HashedWheelTimer.Timeout expiry = expiryTimeouts.remove(attemptId);
+        if (expiry != null) {
+            expiry.cancel();
+        }
+        Channel channel = channels.get(attemptId);
+        if (channel != null) {
+            synchronized (channel) {
+                if (channels.remove(attemptId, channel)) {
+                    pushers.execute(() -> close(channel, "finished"));
+                }
+            }
+        }
+    }
+
+    public long deadlineMs(Long attemptId) {
+        Long deadline = deadlines.get(attemptId);
+        if (deadline == null) {
+            // Started before a restart or on another node: one narrow read, then cached
+            LocalDateTime start = attemptRepo.findStartTime(attemptId)
+                    .orElseThrow(() -> new RuntimeException("Attempt not found"));
+            deadline = toEpochMs(start) + QUIZ_SECONDS * 1000;
+            deadlines.put(attemptId, deadline);
+        }
+        return deadline;
+    }
+
+    // Attempts whose expiry timeout fired and that nobody has finished yet
+    public List<Long> pollExpired(int max) {
+        List<Long> ids = new ArrayList<>();
+        Long id;
+        while (ids.size() < max && (id = expired.poll()) != null) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    public long remainingSeconds(Long attemptId) {
+        return Math.max(0, (deadlineMs(attemptId) - System.currentTimeMillis()) / 1000);
+    }
+
+    // =========================
+    // SSE
+    // =========================
+    public SseEmitter subscribe(Long attemptId) {
+        if (!deadlines.containsKey(attemptId) && isEnded(attemptId)) {
+            throw new RuntimeException("Quiz already finished");
+        }
+        long deadline = deadlineMs(attemptId);
+        long remainingMs = deadline - System.currentTimeMillis();
+
+        // Outlive the countdown a little so the final event still gets through
+        SseEmitter emitter = new SseEmitter(Math.max(remainingMs, 0) + 60_000);
+        Channel channel;
+        while (true) {
+            channel = channels.computeIfAbsent(attemptId, id -> new Channel(id, deadline));
+            // Channels leave the map only under their lock; if this one left before
+            // we got it, nothing would ever tick or close it, so take a fresh one
+            synchronized (channel) {
+                if (channels.get(attemptId) == channel) {
+                    channel.emitters.add(emitter);
+                    break;
+                }
+            }
+            if (!deadlines.containsKey(attemptId)) {
+                // Finished while we were joining
+                throw new RuntimeException("Quiz already finished");
+            }
+        }
+        Channel joined = channel;
+        emitter.onCompletion(() -> joined.emitters.remove(emitter));
+        emitter.onTimeout(() -> joined.emitters.remove(emitter));
+        emitter.onError(e -> joined.emitters.remove(emitter));
+
+        pushers.execute(() -> tick(joined));
+        return emitter;
+    }
+
+    // Runs on the wheel thread or a pusher; re-arms the channel's single timeout
+    private void tick(Channel channel) {
+        synchronized (channel) {
+            tickLocked(channel);
+        }
+    }
+
+    private void tickLocked(Channel channel) {
+        long remainingMs = channel.deadlineMs - System.currentTimeMillis();
+        if (remainingMs <= 0) {
+            if (channels.remove(channel.attemptId, channel)) {
+                pushers.execute(() -> close(channel, "expired"));
+            }
+            return;
+        }
+        if (channel.emitters.isEmpty()) {
+            channels.remove(channel.attemptId, channel);
+            return;
+        }
+
+        long remainingSeconds = remainingMs / 1000;
+        pushers.execute(() -> send(channel, "tick", remainingSeconds));
+
+        HashedWheelTimer.Timeout previous = channel.next;
+        if (previous != null) {
+            previous.cancel();
+        }
+        channel.next = wheel.schedule(() -> tick(channel), Math.min(pushMs, remainingMs), TimeUnit.MILLISECONDS);
+    }
+
+    private void send(Channel channel, String event, long remainingSeconds) {
+        for (SseEmitter emitter : channel.emitters) {
+            try {
+                emitter.send(SseEmitter.event().name(event)
+                        .data(Map.of("attemptId", channel.attemptId, "remainingSeconds", remainingSeconds)));
+            } catch (IOException | IllegalStateException e) {
+                // Client went away
+                channel.emitters.remove(emitter);
+            }
+        }
+    }
+
+    private void close(Channel channel, String event) {
+        HashedWheelTimer.Timeout next = channel.next;
+        if (next != null) {
+            next.cancel();
+        }
+        send(channel, event, Math.max(0, (channel.deadlineMs - System.currentTimeMillis()) / 1000));
+        for (SseEmitter emitter : channel.emitters) {
+            emitter.complete();
+        }
+        channel.emitters.clear();
+    }
+
+    // Attempts nobody finished (abandoned tabs) would otherwise stay in the map forever
+    @Scheduled(fixedDelay = 600000)
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - 3_600_000;
+        deadlines.values().removeIf(d -> d < cutoff);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pushers.shutdownNow();
+    }
+
+    private boolean isEnded(Long attemptId) {
+        List<LocalDateTime> end = attemptRepo.findEndTime(attemptId);
+        return !end.isEmpty() && end.get(0) != null;
+    }
+
+    private static long toEpochMs(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,78 @@
+package com.quiz.AdaptiveQuiz.service;
+
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+// Version counters behind the ETag / Last-Modified of read-mostly endpoints.
+// Writers bump a row in resource_versions; every node keeps the table (a few
+// rows) in memory and re-reads it every couple of seconds, so a conditional GET
+// is answered from memory and a 304 never touches the DB. Another node's change
+// shows up here within one poll.
+@Service
+public class ResourceVersionService {
+
+    public static final String SUBJECTS = "subjects";
+    public static final String LEADERBOARD = "leaderboard";
+
+    public record Version(long version, long lastModifiedMs, String etag) {
+    }
+
+    private final JdbcTemplate jdbc;
+    private final Map<String, Version> versions = new ConcurrentHashMap<>();
+
+    public ResourceVersionService(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    // null until loaded: callers then serve without validators
+    public Version current(String resource) {
+        return versions.get(resource);
+    }
+
+    public void bump(String resource) {
+        try {
+            jdbc.update("UPDATE resource_versions SET version = version + 1, updated_at = NOW() WHERE name = ?",
+                    resource);
+            // Our own change is visible here at once, not after the next poll
+            refresh();
+        } catch (Exception e) {
+            // Clients keep a stale copy until the next successful bump; worth a log, not a failed request
+            System.err.println("Bumping version of " + resource + " failed: " + e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${http.cache.version-poll-ms:2000}")
+    public void refresh() {
+        jdbc.query("SELECT name, version, updated_at FROM resource_versions", rs -> {
+            String name = rs.getString(1);
+            long version = rs.getLong(2);
+            Timestamp updated = rs.getTimestamp(3);
+            versions.put(name, new Version(version, updated.getTime(), "\"" + name + "-" + version + "\""));
+        });
+    }
+
+    // If-None-Match may list several tags, and compression may have made ours weak
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String t = tag.trim();
+            if (t.startsWith("W/")) {
+                t = t.substring(2);
+            }
+            if (t.equals(etag) || t.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
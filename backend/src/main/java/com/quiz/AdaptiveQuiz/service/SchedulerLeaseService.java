@@ -0,0 +1,38 @@
+package com.quiz.AdaptiveQuiz.service;
+
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+// Time-limited leases in scheduler_lease for jobs that must run on one node at a
+// time. The holder renews by acquiring again before the lease runs out; if it
+// dies, another node takes over once lease_until has passed. DB time is used on
+// both sides, so node clocks don't matter.
+@Service
+public class SchedulerLeaseService {
+
+    private final JdbcTemplate jdbc;
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName() + "/"
+            + UUID.randomUUID().toString().substring(0, 8);
+
+    public SchedulerLeaseService(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public boolean tryAcquire(String name, int leaseSeconds) {
+        return jdbc.update("""
+                UPDATE scheduler_lease SET owner = ?, lease_until = NOW() + INTERVAL ? SECOND
+                WHERE name = ? AND (owner = ? OR lease_until < NOW())
+                """, nodeId, leaseSeconds, name, nodeId) > 0;
+    }
+
+    public void release(String name) {
+        jdbc.update("UPDATE scheduler_lease SET lease_until = NOW() WHERE name = ? AND owner = ?", name, nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+}
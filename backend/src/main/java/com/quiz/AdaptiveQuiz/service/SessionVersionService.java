@@ -0,0 +1,138 @@
+package com.quiz.AdaptiveQuiz.service;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.quiz.AdaptiveQuiz.repository.UserRepository;
+import com.quiz.AdaptiveQuiz.util.LongIntHashMap;
+
+// Single-session enforcement without a DB read per request. Every login bumps
+// users.session_version and the new value goes into the JWT; a token is only
+// accepted while its version is the newest one known for the user.
+//
+// The versions live in a userId -> version map, loaded at startup and refreshed
+// periodically. A token newer than the map (login handled by another node)
+// raises the entry, so the node learns about it from the token itself.
+@Service
+public class SessionVersionService {
+
+    private static final int UNKNOWN = -1;
+    private static final int REVOKED = Integer.MAX_VALUE;
+
+    private final UserRepository userRepo;
+    private final LongIntHashMap versions = new LongIntHashMap(4096);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public SessionVersionService(UserRepository userRepo) {
+        this.userRepo = userRepo;
+    }
+
+    // =========================
+    // LOGIN EVENTS
+    // =========================
+    // Invalidates every earlier token of this user and returns the version for the new one
+    @Transactional
+    public int rotate(Long userId) {
+        userRepo.incrementSessionVersion(userId);
+        return reload(userId);
+    }
+
+    // For callers that already bumped the version in their own UPDATE
+    @Transactional(readOnly = true)
+    public int reload(Long userId) {
+        int version = userRepo.findSessionVersion(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        raise(userId, version);
+        return version;
+    }
+
+    // Deleted account: reject whatever tokens are still around
+    public void revoke(Long userId) {
+        lock.writeLock().lock();
+        try {
+            versions.put(userId, REVOKED);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // =========================
+    // REQUEST PATH
+    // =========================
+    public boolean isCurrent(long userId, int tokenVersion) {
+        int known;
+        lock.readLock().lock();
+        try {
+            known = versions.get(userId, UNKNOWN);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (known == UNKNOWN) {
+            // Cold miss only (user created after the last refresh); cached afterwards
+            known = userRepo.findSessionVersion(userId).orElse(REVOKED);
+            raise(userId, known);
+        }
+
+        if (tokenVersion < known) {
+            return false;
+        }
+        if (tokenVersion > known) {
+            raise(userId, tokenVersion);
+        }
+        return true;
+    }
+
+    private void raise(long userId, int version) {
+        lock.writeLock().lock();
+        try {
+            if (versions.get(userId, UNKNOWN) < version) {
+                versions.put(userId, version);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // =========================
+    // STARTUP / REFRESH
+    // =========================
+    // Loads every user's version in the background; until then isCurrent reads unknown users from the DB
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        Thread loader = new Thread(() -> {
+            try {
+                refresh();
+            } catch (Exception e) {
+                System.err.println("Session version load failed: " + e.getMessage());
+            }
+        }, "session-version-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    // Versions only ever move up, so merging with max() is safe against concurrent logins
+    @Scheduled(fixedDelayString = "${auth.session.refresh-ms:60000}",
+            initialDelayString = "${auth.session.refresh-ms:60000}")
+    public void refresh() {
+        List<Object[]> rows = userRepo.findSessionVersions();
+        lock.writeLock().lock();
+        try {
+            for (Object[] row : rows) {
+                long userId = (Long) row[0];
+                int version = ((Number) row[1]).intValue();
+                if (versions.get(userId, UNKNOWN) < version) {
+                    versions.put(userId, version);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
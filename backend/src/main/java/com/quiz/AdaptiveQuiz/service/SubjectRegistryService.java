@@ -0,0 +1,113 @@
+package com.quiz.AdaptiveQuiz.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.stereotype.Service;
+
+import com.quiz.AdaptiveQuiz.entity.Subject;
+import com.quiz.AdaptiveQuiz.repository.SubjectRepository;
+
+// In-memory catalogue of subjects for name / id lookups on hot paths
+// (/api/quiz/start, /api/subjects). The whole table is held as one immutable
+// snapshot, swapped in a single volatile write, so readers never lock or see a
+// half-built map.
+//
+// The snapshot is tagged with the "subjects" version from ResourceVersionService.
+// Adding or deleting a subject bumps that version and reloads right away on the
+// node that made the change. Other nodes see the new version on their next poll
+// and reload on their next lookup. A name missing from the snapshot is checked
+// against the DB once, so a subject created elsewhere a moment ago is still found.
+@Service
+public class SubjectRegistryService {
+
+    private record Snapshot(long version, Map<String, Subject> byName, Map<Long, Subject> byId,
+            List<Subject> all) {
+    }
+
+    private final SubjectRepository subjectRepo;
+    private final ResourceVersionService resourceVersions;
+
+    private volatile Snapshot snapshot;
+
+    public SubjectRegistryService(SubjectRepository subjectRepo, ResourceVersionService resourceVersions) {
+        this.subjectRepo = subjectRepo;
+        this.resourceVersions = resourceVersions;
+    }
+
+    // =========================
+    // LOOKUPS
+    // =========================
+    public Optional<Subject> findByName(String name) {
+        Subject subject = current().byName.get(name);
+        if (subject != null) {
+            return Optional.of(subject);
+        }
+        Optional<Subject> fromDb = subjectRepo.findByName(name);
+        if (fromDb.isPresent()) {
+            // Created on another node since our last poll
+            reload();
+            return Optional.ofNullable(current().byName.get(name)).or(() -> fromDb);
+        }
+        return fromDb;
+    }
+
+    public Optional<Subject> findById(Long id) {
+        return Optional.ofNullable(current().byId.get(id));
+    }
+
+    // In id order
+    public List<Subject> findAll() {
+        return current().all;
+    }
+
+    // =========================
+    // SNAPSHOT
+    // =========================
+    // Called after the subjects version has been bumped for a local change
+    public synchronized void reload() {
+        long version = subjectsVersion();
+        List<Subject> all = new ArrayList<>();
+        // Detached copies without the lazy collections: safe to hand to any thread
+        for (Subject s : subjectRepo.findAll()) {
+            Subject copy = new Subject(s.getName());
+            copy.setId(s.getId());
+            copy.setDescription(s.getDescription());
+            copy.setIcon(s.getIcon());
+            all.add(copy);
+        }
+        all.sort(Comparator.comparing(Subject::getId));
+
+        Map<String, Subject> byName = new HashMap<>();
+        Map<Long, Subject> byId = new HashMap<>();
+        for (Subject s : all) {
+            byName.put(s.getName(), s);
+            byId.put(s.getId(), s);
+        }
+        snapshot = new Snapshot(version, Map.copyOf(byName), Map.copyOf(byId), List.copyOf(all));
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (s == null || s.version != subjectsVersion()) {
+            synchronized (this) {
+                s = snapshot;
+                if (s == null || s.version != subjectsVersion()) {
+                    reload();
+                    s = snapshot;
+                }
+            }
+        }
+        return s;
+    }
+
+    // -1 until the versions are loaded; the snapshot taken then is replaced once they are
+    private long subjectsVersion() {
+        ResourceVersionService.Version v = resourceVersions.current(ResourceVersionService.SUBJECTS);
+        return v == null ? -1 : v.version();
+    }
+}
@@ -1,29 +1,47 @@
 package com.quiz.AdaptiveQuiz.service;
 
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import com.quiz.AdaptiveQuiz.dto.AuthUserDTO;
+import com.quiz.AdaptiveQuiz.dto.LoginCredentialsDTO;
 import com.quiz.AdaptiveQuiz.entity.User;
 import com.quiz.AdaptiveQuiz.repository.UserRepository;
-import org.springframework.transaction.annotation.Transactional;
+import com.quiz.AdaptiveQuiz.util.EmailValidator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class UserService {
 
     private final UserRepository repo;
-    private final PasswordEncoder encoder;
+    private final PasswordHashingService hashing;
     private final EmailService emailService;
+    private final UserStatsService userStatsService;
+    private final SessionVersionService sessionVersions;
+    private final EmailValidator emailValidator;
+    private final TransactionTemplate tx;
 
     public UserService(
             UserRepository repo,
-            PasswordEncoder encoder,
-            EmailService emailService) {
+            PasswordHashingService hashing,
+            EmailService emailService,
+            UserStatsService userStatsService,
+            SessionVersionService sessionVersions,
+            EmailValidator emailValidator,
+            PlatformTransactionManager transactionManager) {
         this.repo = repo;
-        this.encoder = encoder;
+        this.hashing = hashing;
         this.emailService = emailService;
+        this.userStatsService = userStatsService;
+        this.sessionVersions = sessionVersions;
+        this.emailValidator = emailValidator;
+        this.tx = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional
+    // The MX lookup and the BCrypt hash run before the transaction starts, so a
+    // burst of sign-ups never holds pooled connections while they wait. Taken
+    // emails are rejected before hashing; the check is repeated in the transaction
+    // for sign-ups racing on the same address
     public void register(
             String name,
             String email,
@@ -36,41 +54,51 @@ public class UserService {
         if (repo.existsByEmail(email))
             throw new RuntimeException("Email already exists");
 
-        User user = new User();
-        user.setName(name);
-        user.setEmail(email);
-        user.setPassword(encoder.encode(password));
-        user.setRole("STUDENT");
-        user.setVerified(false); // Default false
+        String passwordHash = hashing.encode(password);
 
-        // Generate verification token
-        String token = java.util.UUID.randomUUID().toString();
-        user.setVerificationToken(token);
+        tx.executeWithoutResult(status -> {
+            if (repo.existsByEmail(email))
+                throw new RuntimeException("Email already exists");
 
-        repo.save(user); // Save first
+            User user = new User();
+            user.setName(name);
+            user.setEmail(email);
+            user.setPassword(passwordHash);
+            user.setRole("STUDENT");
+            user.setVerified(false); // Default false
 
-        // Send email
-        emailService.sendVerificationEmail(email, token);
+            // Generate verification token
+            String token = java.util.UUID.randomUUID().toString();
+            user.setVerificationToken(token);
+
+            repo.save(user); // Save first
+            userStatsService.initialize(user.getId());
+
+            // Queued in this transaction; sent by EmailOutboxDispatcher after commit
+            emailService.sendVerificationEmail(email, token);
+        });
     }
 
-    public User login(String email, String password) {
+    public AuthUserDTO login(String email, String password) {
 
-        User user = repo.findByEmail(email)
+        // Projection + narrow UPDATE: the User entity is never loaded or dirty-checked
+        LoginCredentialsDTO user = repo.findCredentialsByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         if (!user.isVerified()) {
             throw new RuntimeException("Email not verified. Please check your email.");
         }
 
-        if (!encoder.matches(password, user.getPassword()))
+        if (user.getPassword() == null)
+            throw new RuntimeException("This account uses Google sign-in");
+
+        if (!hashing.matches(password, user.getPassword()))
             throw new RuntimeException("Invalid password");
 
-        // Generate new session ID
-        String sessionId = java.util.UUID.randomUUID().toString();
-        user.setSessionId(sessionId);
-        repo.save(user);
+        // New session version: every token issued before this one stops working
+        int sessionVersion = sessionVersions.rotate(user.getId());
 
-        return user;
+        return new AuthUserDTO(user.getId(), user.getEmail(), user.getRole(), sessionVersion);
     }
 
     public void verifyEmail(String email, String token) {
@@ -89,35 +117,33 @@ public class UserService {
         }
     }
 
-    public User processOAuthPostLogin(String email, String name) {
-        User user = repo.findByEmail(email).orElse(null);
+    // An INSERT plus the session bump for a new user, one narrow UPDATE otherwise
+    public AuthUserDTO processOAuthPostLogin(String email, String name) {
+        LoginCredentialsDTO existing = repo.findCredentialsByEmail(email).orElse(null);
 
-        if (user == null) {
+        if (existing == null) {
             // Register new user from OAuth
-            user = new User();
+            User user = new User();
             user.setEmail(email);
             user.setName(name);
             user.setProvider("GOOGLE");
             user.setRole("STUDENT");
             user.setVerified(true); // OAuth emails are verified
-            user.setPassword(encoder.encode("OAUTH_USER")); // Dummy password
-            repo.save(user);
-        } else {
-            // Update existing user
-            user.setProvider("GOOGLE");
-            user.setVerified(true);
+            // No password: OAuth accounts never log in with one, so there is nothing to hash
             repo.save(user);
+            userStatsService.initialize(user.getId());
+            // Inserted with the column default (0); this login makes it 1
+            return new AuthUserDTO(user.getId(), user.getEmail(), user.getRole(),
+                    sessionVersions.rotate(user.getId()));
         }
 
-        // Generate Session ID for OAuth login too
-        String sessionId = java.util.UUID.randomUUID().toString();
-        user.setSessionId(sessionId);
-        repo.save(user);
-
-        return user;
+        // Update existing user (also bumps the session version)
+        repo.updateOAuthLogin(existing.getId());
+        return new AuthUserDTO(existing.getId(), existing.getEmail(), existing.getRole(),
+                sessionVersions.reload(existing.getId()));
     }
 
     protected boolean isValidEmailDomain(String email) {
-        return com.quiz.AdaptiveQuiz.util.EmailValidator.isValidEmailDomain(email);
+        return emailValidator.isValidEmailDomain(email);
     }
 }
@@ -0,0 +1,75 @@
+package com.quiz.AdaptiveQuiz.service;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.quiz.AdaptiveQuiz.entity.UserStats;
+import com.quiz.AdaptiveQuiz.repository.UserStatsRepository;
+
+@Service
+public class UserStatsService {
+
+    private final UserStatsRepository statsRepo;
+
+    public UserStatsService(UserStatsRepository statsRepo) {
+        this.statsRepo = statsRepo;
+    }
+
+    // =========================
+    // ROW LIFECYCLE
+    // =========================
+    @Transactional
+    public void initialize(Long userId) {
+        if (!statsRepo.existsById(userId)) {
+            statsRepo.save(new UserStats(userId));
+        }
+    }
+
+    // Fills in rows for users created before the table existed
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        int created = statsRepo.backfillMissing();
+        if (created > 0) {
+            System.out.println("✅ User stats backfilled for " + created + " users");
+        }
+    }
+
+    // Called by the periodic rollup reconciliation
+    @Transactional
+    public void reconcile() {
+        statsRepo.deleteOrphans();
+        statsRepo.backfillMissing();
+        statsRepo.reconcileAll();
+    }
+
+    // =========================
+    // INCREMENTAL UPDATES
+    // =========================
+    // Mirrors AVG(accuracy)/COUNT over quiz_attempt: an attempt counts from the
+    // moment it starts (accuracy 0) and its accuracy is added once it is scored.
+    @Transactional
+    public void recordAttemptStarted(Long userId) {
+        apply(userId, 1, 0);
+    }
+
+    @Transactional
+    public void recordAccuracyChange(Long userId, double accuracyDelta) {
+        if (accuracyDelta != 0) {
+            apply(userId, 0, accuracyDelta);
+        }
+    }
+
+    private void apply(Long userId, long countDelta, double accuracyDelta) {
+        if (statsRepo.applyDelta(userId, countDelta, accuracyDelta) > 0) {
+            return;
+        }
+        UserStats stats = new UserStats(userId);
+        stats.setAttemptCount(Math.max(countDelta, 0));
+        stats.setAccuracySum(accuracyDelta);
+        stats.setAvgAccuracy(stats.getAttemptCount() > 0 ? accuracyDelta / stats.getAttemptCount() : 0);
+        statsRepo.save(stats);
+    }
+}
@@ -0,0 +1,300 @@
+package com.quiz.AdaptiveQuiz.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.WeekFields;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Locale;
+import java.util.TreeSet;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.quiz.AdaptiveQuiz.dto.WeeklyLeaderboardDTO;
+import com.quiz.AdaptiveQuiz.repository.QuizAttemptRepository;
+import com.quiz.AdaptiveQuiz.util.LongIntHashMap;
+
+// In-memory leaderboard for the current week: average attempt accuracy per user.
+// Updated from the quiz write path once the change has committed, rotated at
+// the week boundary and rebuilt from quiz_attempt on startup (and periodically,
+// so several nodes converge). Updates that arrive while a rebuild is reading
+// the DB are buffered with their attempt id; after the read, the same snapshot
+// tells which of them the rebuilt totals already include, and only the others
+// are applied on top.
+@Service
+public class WeeklyLeaderboardService {
+
+    private static final int SNAPSHOT_SIZE = 100;
+
+    // A committed change to one attempt, buffered during a rebuild. accuracy is the
+    // attempt's accuracy after the change, or null for the attempt's start.
+    private record Update(long attemptId, Double accuracy, Runnable apply) {
+    }
+
+    private final QuizAttemptRepository attemptRepo;
+    private final TransactionTemplate snapshotTx;
+
+    // userId -> slot in the parallel arrays below
+    private LongIntHashMap slotByUser = new LongIntHashMap(1024);
+    private long[] userIds = new long[1024];
+    private String[] names = new String[1024];
+    private double[] accuracySums = new double[1024];
+    private int[] attemptCounts = new int[1024];
+    private int slots;
+
+    // Slots ordered best-first; a slot is removed before its numbers change
+    private final TreeSet<Integer> ranking = new TreeSet<>(this::compareSlots);
+
+    private LocalDateTime weekStart = currentWeekStart();
+    private volatile List<WeeklyLeaderboardDTO> snapshot = List.of();
+    private volatile boolean dirty;
+    // Non-null while rebuild() is reading quiz_attempt
+    private List<Update> pending;
+
+    public WeeklyLeaderboardService(QuizAttemptRepository attemptRepo,
+            PlatformTransactionManager transactionManager) {
+        this.attemptRepo = attemptRepo;
+        // Both rebuild reads see one consistent snapshot
+        this.snapshotTx = new TransactionTemplate(transactionManager);
+        this.snapshotTx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTx.setReadOnly(true);
+    }
+
+    // =========================
+    // WRITE PATH
+    // =========================
+    public void recordAttemptStarted(Long attemptId, Long userId, String name, LocalDateTime startTime) {
+        afterCommit(() -> {
+            synchronized (this) {
+                if (pending != null) {
+                    pending.add(new Update(attemptId, null, () -> addAttempt(userId, name, startTime)));
+                }
+                addAttempt(userId, name, startTime);
+            }
+        });
+    }
+
+    // Accuracy belongs to the week the attempt started in
+    public void recordAccuracyChange(Long attemptId, Long userId, LocalDateTime startTime, double accuracy,
+            double accuracyDelta) {
+        afterCommit(() -> {
+            synchronized (this) {
+                if (pending != null) {
+                    pending.add(new Update(attemptId, accuracy,
+                            () -> addAccuracy(userId, startTime, accuracyDelta)));
+                }
+                addAccuracy(userId, startTime, accuracyDelta);
+            }
+        });
+    }
+
+    // A rolled-back attempt or answer never reaches the board
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    private void addAttempt(Long userId, String name, LocalDateTime startTime) {
+        rotateIfNeeded();
+        if (startTime == null || startTime.isBefore(weekStart)) {
+            return;
+        }
+        int slot = slotFor(userId, name);
+        ranking.remove(slot);
+        attemptCounts[slot]++;
+        ranking.add(slot);
+        dirty = true;
+    }
+
+    private void addAccuracy(Long userId, LocalDateTime startTime, double accuracyDelta) {
+        rotateIfNeeded();
+        if (accuracyDelta == 0 || startTime == null || startTime.isBefore(weekStart)) {
+            return;
+        }
+        int slot = slotByUser.get(userId, -1);
+        if (slot < 0) {
+            return; // started before the last rebuild; the next rebuild picks it up
+        }
+        ranking.remove(slot);
+        accuracySums[slot] += accuracyDelta;
+        ranking.add(slot);
+        dirty = true;
+    }
+
+    // =========================
+    // READ PATH
+    // =========================
+    public List<WeeklyLeaderboardDTO> getTop(int limit) {
+        if (dirty || !weekStart.equals(currentWeekStart())) {
+            refreshSnapshot();
+        }
+        List<WeeklyLeaderboardDTO> top = snapshot;
+        return top.subList(0, Math.min(Math.max(limit, 0), top.size()));
+    }
+
+    private synchronized void refreshSnapshot() {
+        rotateIfNeeded();
+        List<WeeklyLeaderboardDTO> top = new ArrayList<>(Math.min(SNAPSHOT_SIZE, ranking.size()));
+        int rank = 1;
+        for (int slot : ranking) {
+            if (rank > SNAPSHOT_SIZE) {
+                break;
+            }
+            top.add(new WeeklyLeaderboardDTO(rank++, userIds[slot], names[slot], average(slot),
+                    attemptCounts[slot]));
+        }
+        snapshot = List.copyOf(top);
+        dirty = false;
+    }
+
+    // =========================
+    // ROTATION / REBUILD
+    // =========================
+    // First build in the background; updates meanwhile are buffered as for any rebuild
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        Thread loader = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                System.err.println("Weekly leaderboard load failed: " + e.getMessage());
+            }
+        }, "weekly-leaderboard-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboard.weekly.rebuild-ms:900000}",
+            initialDelayString = "${leaderboard.weekly.rebuild-ms:900000}")
+    public void rebuild() {
+        LocalDateTime start = currentWeekStart();
+        synchronized (this) {
+            pending = new ArrayList<>();
+        }
+        try {
+            snapshotTx.executeWithoutResult(status -> {
+                List<Object[]> rows = attemptRepo.weeklyTotals(start);
+
+                // The buffer is closed under the lock, so no update lands between
+                // the lookup below and the replay
+                synchronized (this) {
+                    Set<Long> ids = new HashSet<>();
+                    for (Update u : pending) {
+                        ids.add(u.attemptId());
+                    }
+                    // Accuracy of each buffered attempt as the totals saw it; absent if it wasn't there yet
+                    Map<Long, Double> seen = new HashMap<>();
+                    if (!ids.isEmpty()) {
+                        for (Object[] row : attemptRepo.findAccuracies(ids)) {
+                            seen.put((Long) row[0], ((Number) row[1]).doubleValue());
+                        }
+                    }
+
+                    reset(start, Math.max(1024, rows.size() * 2));
+                    for (Object[] row : rows) {
+                        int slot = slotFor((Long) row[0], (String) row[1]);
+                        accuracySums[slot] = ((Number) row[2]).doubleValue();
+                        attemptCounts[slot] = ((Number) row[3]).intValue();
+                        ranking.add(slot);
+                    }
+                    for (Update u : pending) {
+                        Double before = seen.get(u.attemptId());
+                        boolean included = u.accuracy() == null
+                                ? before != null
+                                : before != null && before.doubleValue() == u.accuracy();
+                        if (!included) {
+                            u.apply().run();
+                        }
+                    }
+                    dirty = true;
+                }
+            });
+        } finally {
+            synchronized (this) {
+                pending = null;
+            }
+        }
+    }
+
+    private void rotateIfNeeded() {
+        LocalDateTime current = currentWeekStart();
+        if (!current.equals(weekStart)) {
+            reset(current, 1024);
+        }
+    }
+
+    private void reset(LocalDateTime start, int capacity) {
+        weekStart = start;
+        ranking.clear();
+        slotByUser = new LongIntHashMap(capacity);
+        userIds = new long[capacity];
+        names = new String[capacity];
+        accuracySums = new double[capacity];
+        attemptCounts = new int[capacity];
+        slots = 0;
+        dirty = true;
+    }
+
+    private int slotFor(Long userId, String name) {
+        int slot = slotByUser.get(userId, -1);
+        if (slot >= 0) {
+            return slot;
+        }
+        if (slots == userIds.length) {
+            int capacity = slots * 2;
+            userIds = Arrays.copyOf(userIds, capacity);
+            names = Arrays.copyOf(names, capacity);
+            accuracySums = Arrays.copyOf(accuracySums, capacity);
+            attemptCounts = Arrays.copyOf(attemptCounts, capacity);
+        }
+        slot = slots++;
+        userIds[slot] = userId;
+        names[slot] = name;
+        slotByUser.put(userId, slot);
+        return slot;
+    }
+
+    private double average(int slot) {
+        return attemptCounts[slot] == 0 ? 0 : accuracySums[slot] / attemptCounts[slot];
+    }
+
+    // Best average first; ties broken by more attempts, then lower user id
+    private int compareSlots(int a, int b) {
+        int byAverage = Double.compare(average(b), average(a));
+        if (byAverage != 0) {
+            return byAverage;
+        }
+        int byCount = Integer.compare(attemptCounts[b], attemptCounts[a]);
+        if (byCount != 0) {
+            return byCount;
+        }
+        return Long.compare(userIds[a], userIds[b]);
+    }
+
+    private static LocalDateTime currentWeekStart() {
+        return LocalDate.now()
+                .with(WeekFields.of(Locale.getDefault()).dayOfWeek(), 1)
+                .atStartOfDay();
+    }
+}
@@ -0,0 +1,27 @@
+package com.quiz.AdaptiveQuiz.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+// Identity of a question for duplicate detection: same subject and same text,
+// ignoring case and whitespace differences.
+public final class ContentHash {
+
+    private ContentHash() {
+    }
+
+    public static String of(Long subjectId, String content) {
+        String normalized = content == null ? ""
+                : content.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update((subjectId + ":").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(sha.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
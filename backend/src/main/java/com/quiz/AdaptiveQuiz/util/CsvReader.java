@@ -0,0 +1,87 @@
+package com.quiz.AdaptiveQuiz.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 reader: quoted fields, "" escapes and line breaks inside
+ * quotes. Holds one record in memory at a time.
+ */
+public class CsvReader {
+
+    // A stray quote would otherwise swallow the rest of the file into one field
+    private static final int MAX_RECORD_CHARS = 1 << 20;
+
+    private final BufferedReader in;
+    private long lineNumber;
+    private long recordLine;
+
+    public CsvReader(BufferedReader in) {
+        this.in = in;
+    }
+
+    // Next record, or null at end of input. Blank lines are skipped.
+    public List<String> next() throws IOException {
+        String line;
+        do {
+            line = in.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+        recordLine = lineNumber;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int recordChars = 0;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                line = in.readLine();
+                if (line == null) {
+                    throw new IOException("Unterminated quoted field starting at line " + recordLine);
+                }
+                lineNumber++;
+                recordChars += line.length();
+                if (recordChars > MAX_RECORD_CHARS) {
+                    throw new IOException("Unterminated quoted field starting at line " + recordLine);
+                }
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i < line.length() && line.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Line the last record returned by next() started on (1-based)
+    public long recordLine() {
+        return recordLine;
+    }
+}
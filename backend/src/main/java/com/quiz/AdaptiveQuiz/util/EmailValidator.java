@@ -1,37 +1,169 @@
 package com.quiz.AdaptiveQuiz.util;
 
+import javax.naming.NameNotFoundException;
 import javax.naming.NamingException;
 import javax.naming.directory.Attribute;
 import javax.naming.directory.Attributes;
 import javax.naming.directory.DirContext;
 import javax.naming.directory.InitialDirContext;
 import java.util.Hashtable;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+// MX-record check for sign-up emails. Results are cached per domain (separate
+// TTLs for "has MX" and "no MX"), concurrent lookups of the same domain share one
+// DNS query, and every lookup is bounded by a timeout. Tests construct it with a
+// stub resolver and clock so they do not need real DNS.
+@Component
 public class EmailValidator {
 
-    public static boolean isValidEmailDomain(String email) {
+    @FunctionalInterface
+    public interface MxResolver {
+        // true if the domain has at least one MX record, false if it definitely has none;
+        // throws on transient failures (timeouts, unreachable DNS server)
+        boolean hasMxRecord(String domain) throws Exception;
+    }
+
+    private record CachedResult(boolean valid, long expiresAt) {
+    }
+
+    private static final int MAX_CACHED_DOMAINS = 10_000;
+
+    private final ConcurrentHashMap<String, CachedResult> cache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    private final ExecutorService lookups = Executors.newFixedThreadPool(4, r -> {
+        Thread t = new Thread(r, "mx-lookup");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final MxResolver resolver;
+    private final long timeoutMs;
+    private final long positiveTtlMs;
+    private final long negativeTtlMs;
+    private final LongSupplier clock;
+
+    @Autowired
+    public EmailValidator(
+            @Value("${email.mx.timeout-ms:3000}") long timeoutMs,
+            @Value("${email.mx.positive-ttl-ms:21600000}") long positiveTtlMs,
+            @Value("${email.mx.negative-ttl-ms:600000}") long negativeTtlMs) {
+        this(new JndiMxResolver(timeoutMs), timeoutMs, positiveTtlMs, negativeTtlMs, System::currentTimeMillis);
+    }
+
+    EmailValidator(MxResolver resolver, long timeoutMs, long positiveTtlMs, long negativeTtlMs,
+            LongSupplier clock) {
+        this.resolver = resolver;
+        this.timeoutMs = timeoutMs;
+        this.positiveTtlMs = positiveTtlMs;
+        this.negativeTtlMs = negativeTtlMs;
+        this.clock = clock;
+    }
+
+    public boolean isValidEmailDomain(String email) {
         int pos = email.indexOf('@');
         if (pos == -1)
             return false;
 
-        String domain = email.substring(pos + 1);
+        String domain = normalize(email.substring(pos + 1));
         if (domain.isEmpty())
             return false;
 
+        CachedResult cached = cache.get(domain);
+        if (cached != null && cached.expiresAt() > clock.getAsLong()) {
+            return cached.valid();
+        }
+
+        // Single flight: whoever gets here first starts the query, everyone else waits on it
+        CompletableFuture<Boolean> lookup = inFlight.computeIfAbsent(domain,
+                d -> CompletableFuture.supplyAsync(() -> resolveAndCache(d), lookups));
+        lookup.whenComplete((r, e) -> inFlight.remove(domain, lookup));
+
+        try {
+            return lookup.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return false; // not cached, so the next attempt asks DNS again
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private boolean resolveAndCache(String domain) {
         try {
-            Hashtable<String, String> env = new Hashtable<>();
+            boolean valid = resolver.hasMxRecord(domain);
+            long ttl = valid ? positiveTtlMs : negativeTtlMs;
+            if (cache.size() >= MAX_CACHED_DOMAINS) {
+                evictExpired();
+            }
+            if (cache.size() < MAX_CACHED_DOMAINS) {
+                cache.put(domain, new CachedResult(valid, clock.getAsLong() + ttl));
+            }
+            return valid;
+        } catch (Exception e) {
+            // Transient resolver failure: reject this sign-up but do not remember the answer
+            System.err.println("MX lookup failed for " + domain + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void evictExpired() {
+        long now = clock.getAsLong();
+        cache.values().removeIf(c -> c.expiresAt() <= now);
+    }
+
+    private static String normalize(String domain) {
+        String d = domain.trim().toLowerCase(Locale.ROOT);
+        return d.endsWith(".") ? d.substring(0, d.length() - 1) : d;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lookups.shutdownNow();
+    }
+
+    // =========================
+    // DEFAULT RESOLVER (JNDI DNS)
+    // =========================
+    static class JndiMxResolver implements MxResolver {
+
+        private final Hashtable<String, String> env = new Hashtable<>();
+
+        JndiMxResolver(long timeoutMillis) {
             env.put("java.naming.factory.initial", "com.sun.jndi.dns.DnsContextFactory");
-            DirContext ictx = new InitialDirContext(env);
+            // The JNDI DNS provider doubles the timeout per retry, so keep retries low
+            env.put("com.sun.jndi.dns.timeout.initial", String.valueOf(Math.max(100, timeoutMillis / 3)));
+            env.put("com.sun.jndi.dns.timeout.retries", "1");
+        }
 
-            Attributes attrs = ictx.getAttributes(domain, new String[] { "MX" });
-            Attribute attr = attrs.get("MX");
+        @Override
+        public boolean hasMxRecord(String domain) throws NamingException {
+            DirContext ictx = new InitialDirContext(env);
+            try {
+                Attributes attrs = ictx.getAttributes(domain, new String[] { "MX" });
+                Attribute attr = attrs.get("MX");
 
-            // If we have any MX record, it's valid
-            return attr != null && attr.size() > 0;
+                // If we have any MX record, it's valid
+                return attr != null && attr.size() > 0;
 
-        } catch (NamingException e) {
-            // Domain doesn't exist or no MX record
-            return false;
+            } catch (NameNotFoundException e) {
+                // Domain doesn't exist
+                return false;
+            } finally {
+                ictx.close();
+            }
         }
     }
 }
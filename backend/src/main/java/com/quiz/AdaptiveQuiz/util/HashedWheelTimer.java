@@ -0,0 +1,142 @@
+package com.quiz.AdaptiveQuiz.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashed timing wheel: one thread and a ring of buckets serve any number of
+ * timeouts at O(1) per schedule/cancel, with tick-sized precision. Timeouts
+ * further out than one revolution wait out the extra rounds in their bucket.
+ * Tasks run on the wheel thread and must be short; hand real work to an executor.
+ */
+public class HashedWheelTimer {
+
+    public interface Timeout {
+        // false if the task already ran or was cancelled
+        boolean cancel();
+    }
+
+    private static final int INIT = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final class Entry implements Timeout {
+        private final Runnable task;
+        private final long deadline; // nanos since start
+        private final AtomicInteger state = new AtomicInteger(INIT);
+        private long remainingRounds;
+
+        Entry(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            // Stays in its bucket until the wheel passes by and drops it
+            return state.compareAndSet(INIT, CANCELLED);
+        }
+    }
+
+    private final long tickNanos;
+    private final List<List<Entry>> wheel;
+    private final int mask;
+    private final ConcurrentLinkedQueue<Entry> pending = new ConcurrentLinkedQueue<>();
+    private final long startNanos = System.nanoTime();
+    private final Thread worker;
+    private volatile boolean running = true;
+    private long tick; // worker thread only
+
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        this.tickNanos = Math.max(1, unit.toNanos(tickDuration));
+        int size = Integer.highestOneBit(Math.max(2, ticksPerWheel) - 1) << 1;
+        this.wheel = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        this.mask = size - 1;
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        Entry e = new Entry(task, System.nanoTime() - startNanos + Math.max(0, unit.toNanos(delay)));
+        pending.add(e);
+        return e;
+    }
+
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long now = waitForNextTick();
+            if (now < 0) {
+                continue;
+            }
+            transferPending();
+            expire(wheel.get((int) (tick & mask)), now);
+            tick++;
+        }
+    }
+
+    private long waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        while (true) {
+            long now = System.nanoTime() - startNanos;
+            long sleepNanos = deadline - now;
+            if (sleepNanos <= 0) {
+                return now;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    private void transferPending() {
+        Entry e;
+        while ((e = pending.poll()) != null) {
+            if (e.state.get() != INIT) {
+                continue;
+            }
+            long calculated = e.deadline / tickNanos;
+            e.remainingRounds = (calculated - tick) / wheel.size();
+            // Already due: run on this tick rather than a full revolution later
+            long ticks = Math.max(calculated, tick);
+            wheel.get((int) (ticks & mask)).add(e);
+        }
+    }
+
+    private void expire(List<Entry> bucket, long now) {
+        Iterator<Entry> it = bucket.iterator();
+        while (it.hasNext()) {
+            Entry e = it.next();
+            if (e.state.get() != INIT) {
+                it.remove();
+            } else if (e.remainingRounds <= 0 && e.deadline <= now) {
+                it.remove();
+                if (e.state.compareAndSet(INIT, EXPIRED)) {
+                    try {
+                        e.task.run();
+                    } catch (Throwable t) {
+                        System.err.println("Timer task failed: " + t.getMessage());
+                    }
+                }
+            } else {
+                e.remainingRounds--;
+            }
+        }
+    }
+}
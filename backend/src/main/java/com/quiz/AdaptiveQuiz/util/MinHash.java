@@ -0,0 +1,127 @@
+package com.quiz.AdaptiveQuiz.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash signatures of question text for near-duplicate detection. The text
+ * is reduced to its set of content words (lowercased, punctuation, question
+ * words and fillers dropped, plural "s" stripped), so reworded or reordered
+ * questions still share most of their set. The fraction of equal slots in two
+ * signatures estimates the Jaccard similarity of the sets.
+ */
+public final class MinHash {
+
+    public static final int SIZE = 64;
+    // LSH: 16 bands of 4 slots; pairs above ~0.5 similarity share a band with high probability
+    public static final int BANDS = 16;
+    public static final int ROWS = SIZE / BANDS;
+
+    private static final long[] SEEDS = new long[SIZE];
+
+    static {
+        // Fixed seed: signatures are persisted and must mean the same after a restart
+        SplittableRandom random = new SplittableRandom(0x5EEDL);
+        for (int i = 0; i < SIZE; i++) {
+            SEEDS[i] = random.nextLong();
+        }
+    }
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "the", "of", "in", "on", "at", "to", "for", "by", "with", "from", "as", "and", "or",
+            "is", "are", "was", "were", "be", "been", "do", "does", "did", "what", "which", "who", "whom",
+            "whose", "when", "where", "why", "how", "this", "that", "these", "those", "it", "its", "can",
+            "will", "would", "should", "following", "statement", "true", "correct", "about", "into");
+
+    private MinHash() {
+    }
+
+    public static int[] signature(String text) {
+        int[] sig = new int[SIZE];
+        Arrays.fill(sig, Integer.MAX_VALUE);
+        for (String token : tokens(text)) {
+            long h = fnv(token);
+            for (int i = 0; i < SIZE; i++) {
+                int v = (int) (mix(h ^ SEEDS[i]) >>> 32);
+                if (v < sig[i]) {
+                    sig[i] = v;
+                }
+            }
+        }
+        return sig;
+    }
+
+    public static double similarity(int[] a, int aOffset, int[] b) {
+        int same = 0;
+        for (int i = 0; i < SIZE; i++) {
+            if (a[aOffset + i] == b[i]) {
+                same++;
+            }
+        }
+        return (double) same / SIZE;
+    }
+
+    /** Hash of one band of the signature, salted with the band number. */
+    public static long bandKey(int[] sig, int offset, int band) {
+        long h = 0xCBF29CE484222325L ^ band;
+        for (int i = band * ROWS; i < (band + 1) * ROWS; i++) {
+            h = (h ^ sig[offset + i]) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    public static byte[] toBytes(int[] sig) {
+        ByteBuffer buf = ByteBuffer.allocate(SIZE * 4);
+        for (int v : sig) {
+            buf.putInt(v);
+        }
+        return buf.array();
+    }
+
+    public static int[] fromBytes(byte[] bytes) {
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        int[] sig = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            sig[i] = buf.getInt();
+        }
+        return sig;
+    }
+
+    static Set<String> tokens(String text) {
+        Set<String> tokens = new HashSet<>();
+        String normalized = text == null ? "" : text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}+#]+", " ");
+        for (String word : normalized.trim().split(" ")) {
+            if (word.isEmpty() || STOP_WORDS.contains(word)) {
+                continue;
+            }
+            if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss")) {
+                word = word.substring(0, word.length() - 1);
+            }
+            tokens.add(word);
+        }
+        if (tokens.isEmpty()) {
+            // Nothing but stop words: compare the text as a whole
+            tokens.add(normalized.trim());
+        }
+        return tokens;
+    }
+
+    private static long fnv(String s) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * 0x100000001B3L;
+        }
+        return h;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,17 @@
+-- Indexes for the repository queries on the request path. Tables and columns
+-- are still created by Hibernate; indexes are owned by these migrations.
+
+-- UserResponseRepository.findTopByAttemptOrderByIdDesc / findReviewByAttemptId
+CREATE INDEX idx_user_response_attempt ON user_response (attempt_id, id);
+
+-- Per-user attempt history (findByUser, countByUserId, exclusion of seen questions)
+CREATE INDEX idx_quiz_attempt_user_start ON quiz_attempt (user_id, start_time);
+
+-- QuizAttemptRepository.weeklyTotals: range on start_time, covering the aggregated columns
+CREATE INDEX idx_quiz_attempt_start ON quiz_attempt (start_time, user_id, accuracy);
+
+-- SkillSnapshotRepository.findByUserAndSubjectOrderByTimestampAsc
+CREATE INDEX idx_skill_snapshots_user_subject_time ON skill_snapshots (user_id, subject_id, timestamp);
+
+-- QuestionRepository.countBySubjectAndDifficulty / findRandomBySubjectAndDifficulty
+CREATE INDEX idx_questions_subject_difficulty ON questions (subject_id, difficulty);
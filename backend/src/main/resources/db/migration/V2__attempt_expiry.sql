@@ -0,0 +1,18 @@
+-- Attempts now record end_time when they finish. Ones that were completed
+-- before that get their nominal end so the expiry sweep leaves them alone.
+UPDATE quiz_attempt
+SET end_time = start_time + INTERVAL 900 SECOND
+WHERE end_time IS NULL
+  AND correct_answers + wrong_answers + skipped_answers >= total_questions;
+
+-- AttemptExpiryService sweep: open attempts past their deadline
+CREATE INDEX idx_quiz_attempt_open ON quiz_attempt (end_time, start_time);
+
+-- Time-limited leases so only one node runs a cluster-wide job at a time
+CREATE TABLE IF NOT EXISTS scheduler_lease (
+    name VARCHAR(64) PRIMARY KEY,
+    owner VARCHAR(128),
+    lease_until DATETIME NOT NULL
+);
+
+INSERT IGNORE INTO scheduler_lease (name, owner, lease_until) VALUES ('attempt-expiry', NULL, '1970-01-01 00:00:00');
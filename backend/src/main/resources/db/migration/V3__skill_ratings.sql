@@ -0,0 +1,20 @@
+-- Checkpoints of the online Elo ratings kept in memory by AdaptiveLogicService.
+-- Rows are upserted with deltas, so several nodes can write the same row.
+CREATE TABLE IF NOT EXISTS skill_ratings (
+    user_id BIGINT NOT NULL,
+    subject_id BIGINT NOT NULL,
+    rating INT NOT NULL,
+    answers INT NOT NULL,
+    updated_at DATETIME NOT NULL,
+    PRIMARY KEY (user_id, subject_id)
+);
+
+-- Keyed by the first 64 bits of the question's content hash, so questions from
+-- the generator are rated as well as bank questions
+CREATE TABLE IF NOT EXISTS question_ratings (
+    question_key BIGINT NOT NULL PRIMARY KEY,
+    subject_id BIGINT NOT NULL,
+    rating INT NOT NULL,
+    answers INT NOT NULL,
+    updated_at DATETIME NOT NULL
+);
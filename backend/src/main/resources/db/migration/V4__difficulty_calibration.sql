@@ -0,0 +1,18 @@
+-- Per-question answer counts kept by DifficultyCalibrationService. Hibernate
+-- creates these too on ddl-auto=update; the duplicate-column error is skipped.
+ALTER TABLE questions ADD COLUMN answered_count INT NOT NULL DEFAULT 0;
+ALTER TABLE questions ADD COLUMN correct_count INT NOT NULL DEFAULT 0;
+ALTER TABLE questions ADD COLUMN calibration_flag VARCHAR(20);
+
+-- How far incremental jobs have read a table, by id. horizon_id is the highest
+-- id seen on the previous run: rows up to it are safe to read, since any
+-- transaction that held a lower id back has long committed by then.
+CREATE TABLE IF NOT EXISTS job_watermark (
+    name VARCHAR(64) PRIMARY KEY,
+    last_id BIGINT NOT NULL,
+    horizon_id BIGINT NOT NULL,
+    updated_at DATETIME NOT NULL
+);
+
+INSERT IGNORE INTO job_watermark (name, last_id, horizon_id, updated_at) VALUES ('difficulty-calibration', 0, 0, NOW());
+INSERT IGNORE INTO scheduler_lease (name, owner, lease_until) VALUES ('difficulty-calibration', NULL, '1970-01-01 00:00:00');
@@ -0,0 +1,10 @@
+-- MinHash signatures (64 x 4 bytes) for NearDuplicateService. seq lets every
+-- node pick up rows written by the others since its last sync.
+CREATE TABLE IF NOT EXISTS question_signatures (
+    seq BIGINT AUTO_INCREMENT PRIMARY KEY,
+    question_id BIGINT NOT NULL,
+    subject_id BIGINT NOT NULL,
+    content_hash VARCHAR(64) NOT NULL,
+    signature VARBINARY(256) NOT NULL,
+    UNIQUE KEY uk_question_signatures_question (question_id)
+);
@@ -0,0 +1,9 @@
+-- Version counters behind the ETags of read-mostly endpoints (ResourceVersionService)
+CREATE TABLE IF NOT EXISTS resource_versions (
+    name VARCHAR(64) PRIMARY KEY,
+    version BIGINT NOT NULL,
+    updated_at DATETIME NOT NULL
+);
+
+INSERT IGNORE INTO resource_versions (name, version, updated_at) VALUES ('subjects', 1, NOW());
+INSERT IGNORE INTO resource_versions (name, version, updated_at) VALUES ('leaderboard', 1, NOW());
@@ -0,0 +1,2 @@
+-- Rollup reconciliation runs on one node at a time (AnalyticsRollupService.reconcile)
+INSERT IGNORE INTO scheduler_lease (name, owner, lease_until) VALUES ('analytics-reconcile', NULL, '1970-01-01 00:00:00');
@@ -0,0 +1,10 @@
+-- countBySubjectAndDifficulty, findRandomBySubjectAndDifficulty and
+-- findByUserAndSubjectOrderByTimestampAsc are gone (bank selection is in memory,
+-- skill history is read per user). The composite indexes V1 added for them
+-- also backed the subject_id / user_id foreign keys, so plain indexes take that
+-- over before they are dropped.
+CREATE INDEX idx_questions_subject ON questions (subject_id);
+DROP INDEX idx_questions_subject_difficulty ON questions;
+
+CREATE INDEX idx_skill_snapshots_user ON skill_snapshots (user_id);
+DROP INDEX idx_skill_snapshots_user_subject_time ON skill_snapshots;
@@ -0,0 +1,8 @@
+-- Submits now count their answers in answer_seq (AnswerLogService replays
+-- against it). Existing attempts start from their answer counters, which is
+-- what replay compared with before.
+ALTER TABLE quiz_attempt ADD COLUMN answer_seq INT NOT NULL DEFAULT 0;
+
+UPDATE quiz_attempt
+SET answer_seq = correct_answers + wrong_answers + skipped_answers
+WHERE answer_seq = 0;
@@ -0,0 +1,180 @@
+package com.quiz.AdaptiveQuiz;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.quiz.AdaptiveQuiz.entity.Difficulty;
+import com.quiz.AdaptiveQuiz.entity.QuizAttempt;
+import com.quiz.AdaptiveQuiz.entity.Subject;
+import com.quiz.AdaptiveQuiz.entity.User;
+import com.quiz.AdaptiveQuiz.entity.UserResponse;
+import com.quiz.AdaptiveQuiz.repository.QuizAttemptRepository;
+import com.quiz.AdaptiveQuiz.repository.SubjectRepository;
+import com.quiz.AdaptiveQuiz.repository.UserRepository;
+import com.quiz.AdaptiveQuiz.repository.UserResponseRepository;
+
+// Runs the hot repository methods, captures the SQL Hibernate generates for
+// them and EXPLAINs it against enough seeded rows that the optimizer has a
+// reason to prefer an index. Each test names the V1 migration index it needs:
+// the foreign-key indexes InnoDB creates on its own don't count.
+//
+// idx_quiz_attempt_user_start has no test of its own: it is the index behind
+// the quiz_attempt.user_id foreign key (per-user deletes and history), which
+// the baseline schema already covers.
+// Its own answer-log directory: the context cached for the other tests holds the default one's lock
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.quiz.AdaptiveQuiz.QueryPlanTests$CapturingInspector",
+        "answers.log.dir=target/answer-log-query-plan-tests" })
+class QueryPlanTests {
+
+    private static final int USERS = 400;
+    private static final int ATTEMPTS_PER_USER = 10;
+    private static final int RESPONSES_PER_ATTEMPT = 15;
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> captured = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            captured.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private SubjectRepository subjectRepo;
+
+    @Autowired
+    private QuizAttemptRepository attemptRepo;
+
+    @Autowired
+    private UserResponseRepository responseRepo;
+
+    private final String tag = "plan-test-" + UUID.randomUUID().toString().substring(0, 8);
+    private Subject subject;
+    private QuizAttempt sampleAttempt;
+
+    // Two years of attempts, about 1% of them in the current week
+    @BeforeEach
+    void seed() {
+        subject = subjectRepo.save(new Subject(tag));
+
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            User u = new User();
+            u.setName(tag + "-" + i);
+            u.setEmail(tag + "-" + i + "@example.com");
+            u.setRole("STUDENT");
+            u.setVerified(true);
+            users.add(u);
+        }
+        users = userRepo.saveAll(users);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<QuizAttempt> attempts = new ArrayList<>(USERS * ATTEMPTS_PER_USER);
+        for (int i = 0; i < USERS * ATTEMPTS_PER_USER; i++) {
+            QuizAttempt a = new QuizAttempt();
+            a.setUser(users.get(i % USERS));
+            a.setSubject(subject);
+            a.setCurrentDifficulty(Difficulty.MEDIUM);
+            a.setTotalQuestions(RESPONSES_PER_ATTEMPT);
+            a.setStartTime(i % 100 == 0 ? now.minusHours(1) : now.minusDays(8 + i % 700));
+            a.setAccuracy(50);
+            attempts.add(a);
+        }
+        attempts = attemptRepo.saveAll(attempts);
+
+        List<UserResponse> responses = new ArrayList<>();
+        for (QuizAttempt a : attempts.subList(0, 200)) {
+            for (int q = 0; q < RESPONSES_PER_ATTEMPT; q++) {
+                UserResponse r = new UserResponse();
+                r.setAttempt(a);
+                r.setQuestionText(tag + " question " + q);
+                r.setSelectedAnswer("A");
+                r.setCorrectAnswer("A");
+                r.setDifficulty(Difficulty.MEDIUM);
+                r.setCorrect(true);
+                r.setCreatedAt(now);
+                r.setLogId(UUID.randomUUID().toString());
+                responses.add(r);
+            }
+        }
+        responseRepo.saveAll(responses);
+        sampleAttempt = attempts.get(100);
+
+        jdbc.queryForList("ANALYZE TABLE quiz_attempt, user_response, users");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.update("DELETE r FROM user_response r JOIN quiz_attempt a ON a.attempt_id = r.attempt_id "
+                + "WHERE a.subject_id = ?", subject.getId());
+        jdbc.update("DELETE FROM quiz_attempt WHERE subject_id = ?", subject.getId());
+        jdbc.update("DELETE FROM user_stats WHERE user_id IN (SELECT id FROM users WHERE email LIKE ?)", tag + "-%");
+        jdbc.update("DELETE FROM users WHERE email LIKE ?", tag + "-%");
+        jdbc.update("DELETE FROM subjects WHERE id = ?", subject.getId());
+    }
+
+    @Test
+    void lastResponseOfAttemptUsesIndex() {
+        String sql = capture("user_response", () -> responseRepo.findTopByAttemptOrderByIdDesc(sampleAttempt));
+        assertUsesIndex("idx_user_response_attempt", sql, sampleAttempt.getAttemptId(), 1);
+    }
+
+    @Test
+    void attemptReviewUsesIndex() {
+        String sql = capture("user_response", () -> responseRepo.findReviewByAttemptId(sampleAttempt.getAttemptId()));
+        assertUsesIndex("idx_user_response_attempt", sql, sampleAttempt.getAttemptId());
+    }
+
+    @Test
+    void weeklyLeaderboardUsesIndex() {
+        LocalDateTime weekStart = LocalDateTime.now().minusDays(7);
+        String sql = capture("quiz_attempt", () -> attemptRepo.weeklyTotals(weekStart));
+        assertUsesIndex("idx_quiz_attempt_start", sql, weekStart);
+    }
+
+    // The last statement run by the call that reads the table
+    private String capture(String table, Runnable call) {
+        CapturingInspector.captured.clear();
+        call.run();
+        String sql = null;
+        for (String s : CapturingInspector.captured) {
+            if (s.toLowerCase().startsWith("select") && s.contains(table)) {
+                sql = s;
+            }
+        }
+        assertNotNull(sql, "No query on " + table + " captured: " + CapturingInspector.captured);
+        return sql;
+    }
+
+    private void assertUsesIndex(String index, String sql, Object... args) {
+        assertEquals(args.length, sql.chars().filter(c -> c == '?').count(), "Parameters of " + sql);
+        List<Map<String, Object>> plan = jdbc.queryForList("EXPLAIN " + sql, args);
+        assertTrue(plan.stream().anyMatch(r -> index.equals(r.get("key"))),
+                "Expected " + index + " in the plan of " + sql + ": " + plan);
+    }
+}
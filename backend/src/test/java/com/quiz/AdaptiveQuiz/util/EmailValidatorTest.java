@@ -0,0 +1,149 @@
+package com.quiz.AdaptiveQuiz.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+// Plain unit test: stub resolver and a hand-moved clock, no DNS
+class EmailValidatorTest {
+
+    private static final long TIMEOUT_MS = 200;
+    private static final long POSITIVE_TTL_MS = 60_000;
+    private static final long NEGATIVE_TTL_MS = 5_000;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final AtomicInteger lookups = new AtomicInteger();
+    private EmailValidator validator;
+
+    @AfterEach
+    void stop() {
+        if (validator != null)
+            validator.shutdown();
+    }
+
+    private EmailValidator validator(EmailValidator.MxResolver resolver) {
+        validator = new EmailValidator(domain -> {
+            lookups.incrementAndGet();
+            return resolver.hasMxRecord(domain);
+        }, TIMEOUT_MS, POSITIVE_TTL_MS, NEGATIVE_TTL_MS, now::get);
+        return validator;
+    }
+
+    @Test
+    void cachesDomainWithMxForPositiveTtl() {
+        EmailValidator v = validator(domain -> true);
+
+        assertTrue(v.isValidEmailDomain("a@example.com"));
+        assertTrue(v.isValidEmailDomain("b@Example.COM."));
+        assertEquals(1, lookups.get());
+
+        now.addAndGet(POSITIVE_TTL_MS - 1);
+        assertTrue(v.isValidEmailDomain("c@example.com"));
+        assertEquals(1, lookups.get());
+
+        now.addAndGet(1);
+        assertTrue(v.isValidEmailDomain("d@example.com"));
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void cachesDomainWithoutMxForNegativeTtl() {
+        EmailValidator v = validator(domain -> false);
+
+        assertFalse(v.isValidEmailDomain("a@nomx.test"));
+        now.addAndGet(NEGATIVE_TTL_MS - 1);
+        assertFalse(v.isValidEmailDomain("b@nomx.test"));
+        assertEquals(1, lookups.get());
+
+        now.addAndGet(1);
+        assertFalse(v.isValidEmailDomain("c@nomx.test"));
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void concurrentLookupsOfOneDomainShareAQuery() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        EmailValidator v = validator(domain -> {
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            CountDownLatch started = new CountDownLatch(callers);
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                int n = i;
+                results.add(pool.submit(() -> {
+                    started.countDown();
+                    return v.isValidEmailDomain("user" + n + "@shared.test");
+                }));
+            }
+            assertTrue(started.await(2, TimeUnit.SECONDS));
+            Thread.sleep(50); // let the callers reach the in-flight lookup
+            release.countDown();
+
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(2, TimeUnit.SECONDS));
+            }
+            assertEquals(1, lookups.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void slowResolverIsCutOffAtTimeout() {
+        CountDownLatch release = new CountDownLatch(1);
+        EmailValidator v = validator(domain -> {
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+
+        try {
+            long started = System.nanoTime();
+            assertFalse(v.isValidEmailDomain("a@slow.test"));
+            long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            assertTrue(tookMs >= TIMEOUT_MS && tookMs < 2_000, "Took " + tookMs + " ms");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void resolverFailureIsNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+        EmailValidator v = validator(domain -> {
+            if (calls.incrementAndGet() == 1)
+                throw new RuntimeException("DNS unreachable");
+            return true;
+        });
+
+        assertFalse(v.isValidEmailDomain("a@flaky.test"));
+        assertTrue(v.isValidEmailDomain("b@flaky.test"));
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void rejectsAddressWithoutDomain() {
+        EmailValidator v = validator(domain -> true);
+
+        assertFalse(v.isValidEmailDomain("no-at-sign"));
+        assertFalse(v.isValidEmailDomain("user@"));
+        assertEquals(0, lookups.get());
+    }
+}
@@ -0,0 +1,79 @@
+package com.quiz.AdaptiveQuiz.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+// Plain unit test: a 10 ms wheel with 8 buckets, so one revolution is 80 ms
+class HashedWheelTimerTest {
+
+    private final HashedWheelTimer wheel = new HashedWheelTimer("test-wheel", 10, TimeUnit.MILLISECONDS, 8);
+
+    @AfterEach
+    void stop() {
+        wheel.stop();
+    }
+
+    @Test
+    void firesInDeadlineOrder() throws InterruptedException {
+        List<Integer> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        wheel.schedule(() -> { fired.add(3); done.countDown(); }, 60, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> { fired.add(1); done.countDown(); }, 20, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> { fired.add(2); done.countDown(); }, 40, TimeUnit.MILLISECONDS);
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 2, 3), fired);
+    }
+
+    @Test
+    void waitsOutExtraRounds() throws InterruptedException {
+        // 250 ms is three revolutions plus a bit: same bucket as a 10 ms timeout
+        long scheduled = System.nanoTime();
+        CountDownLatch done = new CountDownLatch(1);
+        long[] firedAfterMs = new long[1];
+        wheel.schedule(() -> {
+            firedAfterMs[0] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - scheduled);
+            done.countDown();
+        }, 250, TimeUnit.MILLISECONDS);
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertTrue(firedAfterMs[0] >= 250, "Fired after " + firedAfterMs[0] + " ms");
+    }
+
+    @Test
+    void zeroDelayRunsOnNextTick() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        wheel.schedule(done::countDown, 0, TimeUnit.MILLISECONDS);
+        assertTrue(done.await(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void cancelledTimeoutNeverRuns() throws InterruptedException {
+        List<String> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch later = new CountDownLatch(1);
+        HashedWheelTimer.Timeout cancelled = wheel.schedule(() -> fired.add("cancelled"), 30, TimeUnit.MILLISECONDS);
+        wheel.schedule(later::countDown, 100, TimeUnit.MILLISECONDS);
+
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+        assertTrue(later.await(2, TimeUnit.SECONDS));
+        assertTrue(fired.isEmpty());
+    }
+
+    @Test
+    void cancelAfterRunReturnsFalse() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        HashedWheelTimer.Timeout timeout = wheel.schedule(done::countDown, 10, TimeUnit.MILLISECONDS);
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertFalse(timeout.cancel());
+    }
+}
@@ -6,6 +6,8 @@ export default function AdminDashboard() {
   const [activeTab, setActiveTab] = useState("overview");
   const [overview, setOverview] = useState({});
   const [users, setUsers] = useState([]);
+  const [userPage, setUserPage] = useState({ hasMore: false, nextAfterId: null, nextAfterAccuracy: null });
+  const [userSort, setUserSort] = useState("id");
   const [subjects, setSubjects] = useState([]);
   const [subjectAnalytics, setSubjectAnalytics] = useState([]);
   const [newSubject, setNewSubject] = useState({ name: "", description: "" });
@@ -13,14 +15,27 @@ export default function AdminDashboard() {
 
   useEffect(() => {
     fetchData();
-  }, [activeTab]);
+  }, [activeTab, userSort]);
+
+  // Keyset paging: the server hands back the cursor for the next page
+  const fetchUsers = (append) => {
+    const params = { sort: userSort, limit: 50 };
+    if (append) {
+      params.afterId = userPage.nextAfterId;
+      if (userSort === "accuracy") params.afterAccuracy = userPage.nextAfterAccuracy;
+    }
+    api.get("/api/user/all", { params }).then(res => {
+      setUsers(prev => (append ? [...prev, ...res.data.users] : res.data.users));
+      setUserPage(res.data);
+    }).catch(console.error);
+  };
 
   const fetchData = () => {
     if (activeTab === "overview") {
       api.get("/api/admin/analytics/system").then(res => setOverview(res.data)).catch(console.error);
       api.get("/api/admin/analytics/subject").then(res => setSubjectAnalytics(res.data)).catch(console.error);
     } else if (activeTab === "users") {
-      api.get("/api/user/all").then(res => setUsers(res.data)).catch(console.error);
+      fetchUsers(false);
     } else if (activeTab === "subjects") {
       api.get("/api/subjects").then(res => setSubjects(res.data)).catch(console.error);
     }
@@ -113,13 +128,13 @@ export default function AdminDashboard() {
             <table className="table table-dark table-hover">
               <thead><tr><th>Subject</th><th>Avg Accuracy</th><th>Total Attempts</th></tr></thead>
               <tbody>
-                {subjectAnalytics.map((row, i) => (
-                  <tr key={i}>
-                    <td>{row[0].name.replace(/_/g, " ")}</td>
-                    <td className={row[1] > 70 ? "text-success" : "text-warning"}>
-                      {row[1] ? row[1].toFixed(1) + "%" : "N/A"}
+                {subjectAnalytics.map((row) => (
+                  <tr key={row.subjectId}>
+                    <td>{row.subjectName.replace(/_/g, " ")}</td>
+                    <td className={row.avgAccuracy > 70 ? "text-success" : "text-warning"}>
+                      {row.avgAccuracy ? row.avgAccuracy.toFixed(1) + "%" : "N/A"}
                     </td>
-                    <td>{row[2]}</td>
+                    <td>{row.totalAttempts}</td>
                   </tr>
                 ))}
                 {subjectAnalytics.length === 0 && <tr><td colSpan="3" className="text-center text-muted">No data available</td></tr>}
@@ -134,25 +149,31 @@ export default function AdminDashboard() {
         <div className="glass-card p-4">
           <div className="d-flex justify-content-between mb-3">
             <h4>Users</h4>
-            <button className="btn btn-outline-success" onClick={handleDownloadReport}>
-              <i className="bi bi-download me-2"></i> Download Report
-            </button>
+            <div className="d-flex gap-2">
+              <select className="form-select" value={userSort} onChange={(e) => setUserSort(e.target.value)}>
+                <option value="id">Sort by ID</option>
+                <option value="accuracy">Sort by Accuracy</option>
+              </select>
+              <button className="btn btn-outline-success text-nowrap" onClick={handleDownloadReport}>
+                <i className="bi bi-download me-2"></i> Download Report
+              </button>
+            </div>
           </div>
           <div className="table-responsive">
             <table className="table text-white">
               <thead><tr><th>ID</th><th>Name</th><th>Email</th><th>Role</th><th>Avg Accuracy</th><th>Total Quizzes</th><th>Action</th></tr></thead>
               <tbody>
-                {users.map((u, i) => (
-                  <tr key={i}>
-                    <td>{u[0].id}</td>
-                    <td>{u[0].name}</td>
-                    <td>{u[0].email}</td>
-                    <td>{u[0].role}</td>
-                    <td>{u[1]?.toFixed(2)}%</td>
-                    <td>{u[2]}</td>
+                {users.map((u) => (
+                  <tr key={u.id}>
+                    <td>{u.id}</td>
+                    <td>{u.name}</td>
+                    <td>{u.email}</td>
+                    <td>{u.role}</td>
+                    <td>{u.avgAccuracy?.toFixed(2)}%</td>
+                    <td>{u.totalQuizzes}</td>
                     <td>
-                      {u[0].role !== "ADMIN" && (
-                        <button className="btn btn-danger btn-sm" onClick={() => handleDeleteUser(u[0].id)}>Delete</button>
+                      {u.role !== "ADMIN" && (
+                        <button className="btn btn-danger btn-sm" onClick={() => handleDeleteUser(u.id)}>Delete</button>
                       )}
                     </td>
                   </tr>
@@ -160,6 +181,11 @@ export default function AdminDashboard() {
               </tbody>
             </table>
           </div>
+          {userPage.hasMore && (
+            <div className="text-center">
+              <button className="btn btn-outline-primary" onClick={() => fetchUsers(true)}>Load more</button>
+            </div>
+          )}
         </div>
       )}
 
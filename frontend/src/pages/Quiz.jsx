@@ -78,6 +78,27 @@ export default function Quiz() {
     return () => clearInterval(timer);
   }, []);
 
+  // Server timer: remaining-time ticks keep the countdown in sync; "expired" / "finished" end the quiz
+  useEffect(() => {
+    const attemptId = localStorage.getItem("attemptId");
+    const token = localStorage.getItem("token");
+    if (!attemptId || !token) return;
+
+    const source = new EventSource(
+      `${api.defaults.baseURL}/api/quiz/events/${attemptId}?access_token=${encodeURIComponent(token)}`
+    );
+    source.addEventListener("tick", (e) => {
+      setTimeLeft(JSON.parse(e.data).remainingSeconds);
+    });
+    const end = () => {
+      source.close();
+      setTimeLeft(0);
+    };
+    source.addEventListener("expired", end);
+    source.addEventListener("finished", end);
+    return () => source.close();
+  }, []);
+
   const formatTime = (seconds) => {
     const m = Math.floor(seconds / 60);
     const s = seconds % 60;